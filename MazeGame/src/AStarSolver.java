@@ -1,70 +1,71 @@
 import java.util.*;
 
 public class AStarSolver extends MazeSolver {
+    private PathNodeHeap pq;
+    private int[] gScores;
+    private int[] parent;
+    private BitSet closed;
+    private final int[] neighbors = new int[4];
 
     public AStarSolver(Maze maze) {
         super(maze);
     }
 
     @Override
-    public void solve(SolverListener listener) {
-        PriorityQueue<PathNode> pq = new PriorityQueue<>();
-        Map<String, Integer> gScores = new HashMap<>();
-        Set<Position> explored = new HashSet<>();
-        int nodesExplored = 0;
+    protected void initSearch() {
+        int cells = maze.getCellCount();
+        pq = new PathNodeHeap();
+        gScores = new int[cells];
+        parent = new int[cells];
+        closed = new BitSet(cells);
 
-        List<Position> startPath = new ArrayList<>();
-        startPath.add(start);
-        int h = heuristic(start);
-        pq.offer(new PathNode(start, startPath, 0, h));
-        gScores.put(start.toString(), 0);
-
-        while (!pq.isEmpty()) {
-            PathNode current = pq.poll();
-            Position pos = current.getPosition();
-
-            if (explored.contains(pos)) continue;
-
-            explored.add(pos);
-            nodesExplored++;
+        Arrays.fill(gScores, Integer.MAX_VALUE);
+        gScores[startId] = 0;
+        parent[startId] = -1;
+        pq.offer(PathNode.pack(startId, heuristic(startId)));
+        if (listener != null) listener.onCellEnqueued(startId);
+    }
 
-            if (listener != null) {
-                List<Position> queuePositions = new ArrayList<>();
-                for (PathNode node : pq) {
-                    queuePositions.add(node.getPosition());
-                }
-                listener.onStepComplete(pos, explored, queuePositions, nodesExplored);
-            }
+    @Override
+    protected boolean expandNext() {
+        int id;
+        do {
+            if (pq.isEmpty()) return false;
+            id = PathNode.getCell(pq.poll());
+        } while (closed.get(id));
 
-            if (pos.equals(goal)) {
-                if (listener != null) {
-                    listener.onSolutionFound(current.getPath(), current.getCost(), nodesExplored);
-                }
-                return;
-            }
+        closed.set(id);
+        nodesExplored++;
 
-            for (Position neighbor : maze.getAccessibleNeighbors(pos)) {
-                if (explored.contains(neighbor)) continue;
+        if (listener != null) {
+            listener.onCellDequeued(id);
+            listener.onCellExpanded(id, nodesExplored);
+        }
 
-                int weight = maze.getCell(neighbor.getRow(), neighbor.getCol())
-                        .getTerrain().getWeight();
-                int newGCost = current.getCost() + weight;
+        if (id == goalId) {
+            finishWithPath(buildPath(parent, id), gScores[id]);
+            return true;
+        }
 
-                String neighborKey = neighbor.toString();
-                if (newGCost < gScores.getOrDefault(neighborKey, Integer.MAX_VALUE)) {
-                    gScores.put(neighborKey, newGCost);
-                    int newH = heuristic(neighbor);
-                    int newFScore = newGCost + newH;
+        int count = maze.getNeighborIds(id, neighbors);
+        for (int i = 0; i < count; i++) {
+            int neighbor = neighbors[i];
+            if (closed.get(neighbor)) continue;
 
-                    List<Position> newPath = new ArrayList<>(current.getPath());
-                    newPath.add(neighbor);
-                    pq.offer(new PathNode(neighbor, newPath, newGCost, newFScore));
-                }
+            int newGCost = gScores[id] + maze.getWeight(neighbor);
+            if (newGCost < gScores[neighbor]) {
+                gScores[neighbor] = newGCost;
+                parent[neighbor] = id;
+                int newFScore = newGCost + heuristic(neighbor);
+                pq.offer(PathNode.pack(neighbor, newFScore));
+                if (listener != null) listener.onCellEnqueued(neighbor);
             }
         }
+        return true;
+    }
 
-        if (listener != null) {
-            listener.onNoSolution();
-        }
+    @Override
+    public int getFrontierSize() {
+        return pq.size();
     }
-}
\ No newline at end of file
+}
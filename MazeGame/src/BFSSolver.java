@@ -1,60 +1,67 @@
 import java.util.*;
 
 public class BFSSolver extends MazeSolver {
+    private int[] queue;
+    private int head;
+    private int tail;
+    private BitSet visited;
+    private int[] parent;
+    private int[] cost;
+    private final int[] neighbors = new int[4];
 
     public BFSSolver(Maze maze) {
         super(maze);
     }
 
     @Override
-    public void solve(SolverListener listener) {
-        Queue<PathNode> queue = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
-        Set<Position> explored = new HashSet<>();
-        int nodesExplored = 0;
-
-        List<Position> startPath = new ArrayList<>();
-        startPath.add(start);
-        queue.offer(new PathNode(start, startPath, 0));
-        visited.add(start.toString());
-
-        while (!queue.isEmpty()) {
-            PathNode current = queue.poll();
-            Position pos = current.getPosition();
-
-            explored.add(pos);
-            nodesExplored++;
-
-            if (listener != null) {
-                List<Position> queuePositions = new ArrayList<>();
-                for (PathNode node : queue) {
-                    queuePositions.add(node.getPosition());
-                }
-                listener.onStepComplete(pos, explored, queuePositions, nodesExplored);
-            }
+    protected void initSearch() {
+        int cells = maze.getCellCount();
+        queue = new int[cells];
+        head = 0;
+        tail = 0;
+        visited = new BitSet(cells);
+        parent = new int[cells];
+        cost = new int[cells];
 
-            if (pos.equals(goal)) {
-                if (listener != null) {
-                    listener.onSolutionFound(current.getPath(), current.getCost(), nodesExplored);
-                }
-                return;
-            }
+        queue[tail++] = startId;
+        if (listener != null) listener.onCellEnqueued(startId);
+        visited.set(startId);
+        parent[startId] = -1;
+    }
 
-            for (Position neighbor : maze.getAccessibleNeighbors(pos)) {
-                String neighborKey = neighbor.toString();
-                if (!visited.contains(neighborKey)) {
-                    visited.add(neighborKey);
-                    int weight = maze.getCell(neighbor.getRow(), neighbor.getCol())
-                            .getTerrain().getWeight();
-                    List<Position> newPath = new ArrayList<>(current.getPath());
-                    newPath.add(neighbor);
-                    queue.offer(new PathNode(neighbor, newPath, current.getCost() + weight));
-                }
-            }
-        }
+    @Override
+    protected boolean expandNext() {
+        if (head == tail) return false;
+
+        int current = queue[head++];
+        nodesExplored++;
 
         if (listener != null) {
-            listener.onNoSolution();
+            listener.onCellDequeued(current);
+            listener.onCellExpanded(current, nodesExplored);
         }
+
+        if (current == goalId) {
+            finishWithPath(buildPath(parent, current), cost[current]);
+            return true;
+        }
+
+        int count = maze.getNeighborIds(current, neighbors);
+        for (int i = 0; i < count; i++) {
+            int neighbor = neighbors[i];
+            if (!visited.get(neighbor)) {
+                visited.set(neighbor);
+                parent[neighbor] = current;
+                cost[neighbor] = cost[current] + maze.getWeight(neighbor);
+                queue[tail++] = neighbor;
+                if (listener != null) listener.onCellEnqueued(neighbor);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return tail - head;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Recursive backtracker (randomized depth-first search) with an explicit
+ * int stack. Gives long winding corridors with few, long dead ends.
+ */
+public class BacktrackerGenerator extends MazeGenerator {
+    public BacktrackerGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        int[] stack = new int[maze.getCellCount()];
+        int[] choices = new int[4];
+        int size = 0;
+
+        int start = random.nextInt(maze.getCellCount());
+        visit(start, 1);
+        stack[size++] = start;
+
+        while (size > 0) {
+            if (isCancelled()) return false;
+
+            int cell = stack[size - 1];
+            int count = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbor(cell, direction);
+                if (next >= 0 && !maze.isVisited(next)) {
+                    choices[count++] = direction;
+                }
+            }
+            if (count == 0) {
+                size--;
+            } else {
+                stack[size] = carve(cell, choices[random.nextInt(count)], size + 1);
+                size++;
+            }
+        }
+        return true;
+    }
+}
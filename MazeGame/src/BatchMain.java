@@ -0,0 +1,231 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Headless entry point: generates a batch of seeded mazes, solves each one
+ * with the chosen solvers and writes one CSV row or JSON line per solve.
+ * Mazes are spread over a fork-join pool; results are written in maze order.
+ *
+ * <pre>
+ * java BatchMain --rows 500 --cols 500 --count 20 --seed 1 --generator Wilson \
+ *     --solvers Dijkstra,A*,Dial --format csv --out results.csv
+ * </pre>
+ *
+ * Maze {@code i} is the {@link MazeSpec} with seed {@code seed + i}, so any
+ * single maze of a batch can be reproduced on its own. With {@code --cache}
+ * mazes are loaded from earlier runs instead of generated again; generateMs
+ * then measures the load.
+ */
+public class BatchMain {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: BatchMain [options]",
+            "  --rows N          maze rows (default 100)",
+            "  --cols N          maze columns (default 100)",
+            "  --count K         number of mazes (default 10)",
+            "  --seed S          seed of the first maze (default 1)",
+            "  --generator G     maze generator (default Prim)",
+            "  --terrain T       terrain mix: " + String.join(", ", TerrainMix.getPresetNames()) + " (default default)",
+            "  --cache DIR       reuse mazes generated by earlier runs, stored in DIR",
+            "  --solvers A,B     comma separated solver names (default all)",
+            "  --format F        csv or jsonl (default csv)",
+            "  --out FILE        output file (default stdout)",
+            "  --parallelism P   worker threads (default available processors)",
+            "Generators: " + String.join(", ", MazeGenerator.getAlgorithmNames()),
+            "  (Growing Tree:P grows from the newest cell with probability P, default "
+                    + MazeGenerator.DEFAULT_NEWEST_PROBABILITY + ")",
+            "Solvers: " + String.join(", ", MazeSolver.getAlgorithmNames()));
+
+    private static final String[] COLUMNS = {"maze", "seed", "rows", "cols", "generator", "terrain", "algorithm", "solved",
+            "cost", "pathLength", "nodesExplored", "solveMs", "peakFrontier", "generateMs"};
+
+    private int rows = 100;
+    private int cols = 100;
+    private int count = 10;
+    private long seed = 1;
+    private String generator = "Prim";
+    private TerrainMix terrain = TerrainMix.DEFAULT;
+    private MazeCache cache;
+    private String[] solvers = MazeSolver.getAlgorithmNames();
+    private boolean jsonl;
+    private String out;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) {
+        BatchMain batch = new BatchMain();
+        try {
+            batch.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (PrintWriter writer = batch.openOutput()) {
+            batch.run(writer);
+        } catch (IOException e) {
+            System.err.println("Could not write results: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                throw new IllegalArgumentException("Batch maze generator and solver");
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--rows": rows = positive(option, value); break;
+                case "--cols": cols = positive(option, value); break;
+                case "--count": count = positive(option, value); break;
+                case "--seed": seed = parseLong(option, value); break;
+                case "--parallelism": parallelism = positive(option, value); break;
+                case "--out": out = value; break;
+                case "--format":
+                    if (!value.equals("csv") && !value.equals("jsonl")) {
+                        throw new IllegalArgumentException("Unknown format: " + value);
+                    }
+                    jsonl = value.equals("jsonl");
+                    break;
+                case "--generator":
+                    if (!MazeGenerator.isAlgorithm(value)) {
+                        throw new IllegalArgumentException("Unknown generator: " + value);
+                    }
+                    generator = value;
+                    break;
+                case "--terrain":
+                    terrain = TerrainMix.preset(value);
+                    if (terrain == null) {
+                        throw new IllegalArgumentException("Unknown terrain mix: " + value);
+                    }
+                    break;
+                case "--cache":
+                    // Batch mazes are used once per run, so only the disk side matters
+                    cache = new MazeCache(0, new File(value));
+                    break;
+                case "--solvers":
+                    solvers = value.split(",");
+                    for (String name : solvers) {
+                        if (!Arrays.asList(MazeSolver.getAlgorithmNames()).contains(name)) {
+                            throw new IllegalArgumentException("Unknown solver: " + name);
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Maze too large: " + rows + "x" + cols);
+        }
+    }
+
+    private static int positive(String option, String value) {
+        long parsed = parseLong(option, value);
+        if (parsed <= 0 || parsed > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(option + " must be a positive int: " + value);
+        }
+        return (int) parsed;
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " expects a number: " + value);
+        }
+    }
+
+    private PrintWriter openOutput() throws IOException {
+        OutputStream stream = out == null ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(out);
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+    }
+
+    private void run(PrintWriter writer) throws IOException {
+        if (!jsonl) {
+            writer.println(String.join(",", COLUMNS));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<Object[]>>> tasks = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                tasks.add(pool.submit(() -> runMaze(index)));
+            }
+            for (ForkJoinTask<List<Object[]>> task : tasks) {
+                for (Object[] row : task.join()) {
+                    writer.println(jsonl ? toJson(row) : toCsv(row));
+                }
+                writer.flush();
+                if (writer.checkError()) {
+                    throw new IOException(out == null ? "stdout" : out);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Object[]> runMaze(int index) {
+        long mazeSeed = seed + index;
+        MazeSpec spec = new MazeSpec(generator, rows, cols, mazeSeed, terrain);
+
+        long start = System.nanoTime();
+        Maze maze = cache == null ? spec.build() : cache.get(spec);
+        double generateMs = (System.nanoTime() - start) / 1e6;
+
+        List<Object[]> results = new ArrayList<>();
+        for (String algorithm : solvers) {
+            MazeSolver solver = MazeSolver.create(algorithm, maze);
+            start = System.nanoTime();
+            solver.start(null);
+            solver.runToEnd();
+            double solveMs = (System.nanoTime() - start) / 1e6;
+
+            results.add(new Object[] {index, mazeSeed, rows, cols, generator, terrain.getName(), algorithm, solver.isSolved(),
+                    solver.getPathCost(), solver.getPath().size(), solver.getNodesExplored(),
+                    round(solveMs), solver.getPeakFrontierSize(), round(generateMs)});
+        }
+        return results;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+
+    private static String toCsv(Object[] row) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) line.append(',');
+            String value = String.valueOf(row[i]);
+            if (value.contains(",") || value.contains("\"")) {
+                value = '"' + value.replace("\"", "\"\"") + '"';
+            }
+            line.append(value);
+        }
+        return line.toString();
+    }
+
+    private static String toJson(Object[] row) {
+        StringBuilder line = new StringBuilder("{");
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) line.append(',');
+            line.append('"').append(COLUMNS[i]).append("\":");
+            if (row[i] instanceof String) {
+                line.append('"').append(((String) row[i]).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            } else {
+                line.append(row[i]);
+            }
+        }
+        return line.append('}').toString();
+    }
+}
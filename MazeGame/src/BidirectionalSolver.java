@@ -0,0 +1,148 @@
+import java.util.*;
+
+/**
+ * Bidirectional Dijkstra. One search grows from the start and one from the
+ * goal over the reversed graph (stepping out of a cell costs that cell's
+ * weight), always expanding the side whose queue has the smaller minimum.
+ * Whenever a relaxation touches a cell the other side has reached, the
+ * combined cost becomes a candidate for the best path {@code mu}. Once the
+ * two queue minimums add up to at least {@code mu} no shorter path can
+ * exist, so the search stops there.
+ */
+public class BidirectionalSolver extends MazeSolver {
+
+    private PathNodeHeap forwardQueue;
+    private PathNodeHeap backwardQueue;
+    private int[] forwardDist;
+    private int[] backwardDist;
+    private int[] forwardParent;
+    private int[] backwardParent;
+    private BitSet forwardClosed;
+    private BitSet backwardClosed;
+    private final int[] neighbors = new int[4];
+    private long best;
+    private int meeting;
+
+    public BidirectionalSolver(Maze maze) {
+        super(maze);
+    }
+
+    @Override
+    protected void initSearch() {
+        int cells = maze.getCellCount();
+        forwardQueue = new PathNodeHeap();
+        backwardQueue = new PathNodeHeap();
+        forwardDist = new int[cells];
+        backwardDist = new int[cells];
+        forwardParent = new int[cells];
+        backwardParent = new int[cells];
+        forwardClosed = new BitSet(cells);
+        backwardClosed = new BitSet(cells);
+
+        Arrays.fill(forwardDist, Integer.MAX_VALUE);
+        Arrays.fill(backwardDist, Integer.MAX_VALUE);
+        forwardDist[startId] = 0;
+        backwardDist[goalId] = 0;
+        forwardParent[startId] = -1;
+        backwardParent[goalId] = -1;
+        forwardQueue.offer(PathNode.pack(startId, 0));
+        backwardQueue.offer(PathNode.pack(goalId, 0));
+        if (listener != null) {
+            listener.onCellEnqueued(startId);
+            listener.onCellEnqueued(goalId);
+        }
+
+        best = startId == goalId ? 0 : Long.MAX_VALUE;
+        meeting = startId;
+    }
+
+    @Override
+    protected boolean expandNext() {
+        skipClosed(forwardQueue, forwardClosed);
+        skipClosed(backwardQueue, backwardClosed);
+        if (forwardQueue.isEmpty() || backwardQueue.isEmpty()) {
+            return finishSearch();
+        }
+
+        int forwardMin = PathNode.getPriority(forwardQueue.peek());
+        int backwardMin = PathNode.getPriority(backwardQueue.peek());
+        if ((long) forwardMin + backwardMin >= best) {
+            return finishSearch();
+        }
+
+        boolean forward = forwardMin <= backwardMin;
+        int id = PathNode.getCell(forward ? forwardQueue.poll() : backwardQueue.poll());
+        nodesExplored++;
+
+        if (listener != null) {
+            listener.onCellDequeued(id);
+            listener.onCellExpanded(id, nodesExplored);
+        }
+
+        if (forward) {
+            forwardClosed.set(id);
+            int count = maze.getNeighborIds(id, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (forwardClosed.get(neighbor)) continue;
+
+                int newCost = forwardDist[id] + maze.getWeight(neighbor);
+                if (newCost < forwardDist[neighbor]) {
+                    forwardDist[neighbor] = newCost;
+                    forwardParent[neighbor] = id;
+                    forwardQueue.offer(PathNode.pack(neighbor, newCost));
+                    if (listener != null) listener.onCellEnqueued(neighbor);
+                }
+                if (backwardDist[neighbor] != Integer.MAX_VALUE
+                        && (long) forwardDist[neighbor] + backwardDist[neighbor] < best) {
+                    best = (long) forwardDist[neighbor] + backwardDist[neighbor];
+                    meeting = neighbor;
+                }
+            }
+        } else {
+            backwardClosed.set(id);
+            int stepCost = maze.getWeight(id);
+            int count = maze.getNeighborIds(id, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (backwardClosed.get(neighbor)) continue;
+
+                int newCost = backwardDist[id] + stepCost;
+                if (newCost < backwardDist[neighbor]) {
+                    backwardDist[neighbor] = newCost;
+                    backwardParent[neighbor] = id;
+                    backwardQueue.offer(PathNode.pack(neighbor, newCost));
+                    if (listener != null) listener.onCellEnqueued(neighbor);
+                }
+                if (forwardDist[neighbor] != Integer.MAX_VALUE
+                        && (long) forwardDist[neighbor] + backwardDist[neighbor] < best) {
+                    best = (long) forwardDist[neighbor] + backwardDist[neighbor];
+                    meeting = neighbor;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return forwardQueue.size() + backwardQueue.size();
+    }
+
+    // No shorter path can exist any more: report the best meeting point, if any
+    private boolean finishSearch() {
+        if (best == Long.MAX_VALUE) return false;
+        List<Position> path = buildPath(forwardParent, meeting);
+        for (int cell = backwardParent[meeting]; cell != -1; cell = backwardParent[cell]) {
+            path.add(maze.toPosition(cell));
+        }
+        finishWithPath(path, (int) best);
+        return true;
+    }
+
+    private void skipClosed(PathNodeHeap queue, BitSet closed) {
+        while (!queue.isEmpty() && closed.get(PathNode.getCell(queue.peek()))) {
+            queue.poll();
+        }
+    }
+}
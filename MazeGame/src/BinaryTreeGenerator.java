@@ -0,0 +1,34 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Binary tree: every cell opens either its top or its left wall, chosen by
+ * a coin flip, except along the top row and left column where only one of
+ * them leads anywhere. Needs no memory beyond the maze, but has a strong
+ * diagonal bias and a long open corridor on the top and left edges.
+ */
+public class BinaryTreeGenerator extends MazeGenerator {
+    public BinaryTreeGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        visit(0, 0);
+        for (int row = 0; row < rows; row++) {
+            if (isCancelled()) return false;
+
+            for (int col = 0; col < cols; col++) {
+                if (row == 0 && col == 0) continue;
+                // Carving from the older neighbour keeps the events in growth order
+                boolean north = col == 0 || (row > 0 && random.nextBoolean());
+                int cell = row * cols + col;
+                if (north) {
+                    carve(cell - cols, 2, 0);
+                } else {
+                    carve(cell - 1, 1, 0);
+                }
+            }
+        }
+        return true;
+    }
+}
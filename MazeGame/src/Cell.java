@@ -1,32 +1,30 @@
+/**
+ * Lightweight view of one cell of a {@link Maze}. The state lives in the
+ * maze's bit planes, so getters and setters read and write through.
+ */
 public class Cell {
-    private boolean topWall;
-    private boolean rightWall;
-    private boolean bottomWall;
-    private boolean leftWall;
-    private boolean visited;
-    private TerrainType terrain;
+    private final Maze maze;
+    private final int row;
+    private final int col;
 
-    public Cell() {
-        this.topWall = true;
-        this.rightWall = true;
-        this.bottomWall = true;
-        this.leftWall = true;
-        this.visited = false;
-        this.terrain = TerrainType.DEFAULT;
+    Cell(Maze maze, int row, int col) {
+        this.maze = maze;
+        this.row = row;
+        this.col = col;
     }
 
     // Getters and Setters
-    public boolean hasTopWall() { return topWall; }
-    public boolean hasRightWall() { return rightWall; }
-    public boolean hasBottomWall() { return bottomWall; }
-    public boolean hasLeftWall() { return leftWall; }
-    public boolean isVisited() { return visited; }
-    public TerrainType getTerrain() { return terrain; }
+    public boolean hasTopWall() { return maze.hasTopWall(row, col); }
+    public boolean hasRightWall() { return maze.hasRightWall(row, col); }
+    public boolean hasBottomWall() { return maze.hasBottomWall(row, col); }
+    public boolean hasLeftWall() { return maze.hasLeftWall(row, col); }
+    public boolean isVisited() { return maze.isVisited(maze.cellId(row, col)); }
+    public TerrainType getTerrain() { return maze.getTerrain(row, col); }
 
-    public void setTopWall(boolean topWall) { this.topWall = topWall; }
-    public void setRightWall(boolean rightWall) { this.rightWall = rightWall; }
-    public void setBottomWall(boolean bottomWall) { this.bottomWall = bottomWall; }
-    public void setLeftWall(boolean leftWall) { this.leftWall = leftWall; }
-    public void setVisited(boolean visited) { this.visited = visited; }
-    public void setTerrain(TerrainType terrain) { this.terrain = terrain; }
-}
\ No newline at end of file
+    public void setTopWall(boolean topWall) { maze.setTopWall(row, col, topWall); }
+    public void setRightWall(boolean rightWall) { maze.setRightWall(row, col, rightWall); }
+    public void setBottomWall(boolean bottomWall) { maze.setBottomWall(row, col, bottomWall); }
+    public void setLeftWall(boolean leftWall) { maze.setLeftWall(row, col, leftWall); }
+    public void setVisited(boolean visited) { maze.setVisited(maze.cellId(row, col), visited); }
+    public void setTerrain(TerrainType terrain) { maze.setTerrain(row, col, terrain); }
+}
@@ -2,18 +2,33 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ItemEvent;
+import java.util.function.Supplier;
 
 public class ControlPanel extends JPanel {
     private MazePanel mazePanel;
     private JButton generateButton;
     private JButton solveButton;
     private JButton resetButton;
+    private JButton pauseButton;
+    private JButton stepButton;
+    private JButton raceButton;
     private JComboBox<String> algorithmCombo;
+    private JComboBox<String> generatorCombo;
+    private JSpinner newestSpinner;
     private JSlider genSpeedSlider;
     private JSlider solveSpeedSlider;
+    private JCheckBox turboToggle;
     private JLabel statsLabel;
     private JCheckBox soundToggle;
     private JSlider volumeSlider;
+    private JSpinner rowsSpinner;
+    private JSpinner colsSpinner;
+    private JButton resizeButton;
+    private JSlider zoomSlider;
+    private JSlider traceSlider;
+    private JButton saveTraceButton;
+    private JButton loadTraceButton;
+    private boolean syncingTraceSlider;
 
     private Timer statsTimer;
     private SoundManager soundManager;
@@ -24,7 +39,7 @@ public class ControlPanel extends JPanel {
 
         setLayout(new BorderLayout());
         setBackground(new Color(30, 41, 59));
-        setPreferredSize(new Dimension(800, 180)); // Increased height for sound controls
+        setPreferredSize(new Dimension(800, 220)); // Increased height for sound and view controls
 
         initComponents();
         startStatsTimer();
@@ -48,11 +63,44 @@ public class ControlPanel extends JPanel {
         JPanel row1 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
         row1.setBackground(new Color(30, 41, 59));
 
+        JLabel generatorLabel = new JLabel("Generator:");
+        generatorLabel.setForeground(Color.WHITE);
+        row1.add(generatorLabel);
+
+        generatorCombo = new JComboBox<>(MazeGenerator.getAlgorithmNames());
+        generatorCombo.setSelectedItem("Prim");
+        generatorCombo.setPreferredSize(new Dimension(120, 35));
+        generatorCombo.setFont(new Font("Arial", Font.PLAIN, 12));
+        row1.add(generatorCombo);
+
+        // Growing tree only: how often it grows from the newest cell
+        JLabel newestLabel = new JLabel("Newest:");
+        newestLabel.setForeground(Color.WHITE);
+        row1.add(newestLabel);
+
+        newestSpinner = new JSpinner(new SpinnerNumberModel(
+                MazeGenerator.DEFAULT_NEWEST_PROBABILITY, 0.0, 1.0, 0.1));
+        newestSpinner.setPreferredSize(new Dimension(60, 25));
+        newestSpinner.setToolTipText("Growing Tree: chance of growing from the newest cell instead of a random one");
+        row1.add(newestSpinner);
+        generatorCombo.addActionListener(e -> updateStats());
+
         generateButton = createStyledButton("Generate Maze", new Color(16, 185, 129));
         generateButton.addActionListener(e -> {
             soundManager.playSound("button_click");
-            int speed = 210 - genSpeedSlider.getValue();
-            mazePanel.generateMaze(speed);
+            String algorithm = (String) generatorCombo.getSelectedItem();
+            // Rounded so spinner steps give names like "Growing Tree:0.3"
+            double newest = Math.round((Double) newestSpinner.getValue() * 100) / 100.0;
+            if (MazeGenerator.GROWING_TREE.equals(algorithm)
+                    && newest != MazeGenerator.DEFAULT_NEWEST_PROBABILITY) {
+                algorithm = MazeGenerator.growingTree(newest);
+            }
+            if (turboToggle.isSelected()) {
+                mazePanel.generateMaze(algorithm, FramePacer.turbo(stepsPerFrame(genSpeedSlider)));
+            } else {
+                int speed = 210 - genSpeedSlider.getValue();
+                mazePanel.generateMaze(algorithm, speed);
+            }
         });
         row1.add(generateButton);
 
@@ -72,6 +120,15 @@ public class ControlPanel extends JPanel {
         });
         row1.add(resetButton);
 
+        // Race every solver on a snapshot of the current maze
+        raceButton = createStyledButton("Race All", new Color(234, 88, 12));
+        raceButton.addActionListener(e -> {
+            soundManager.playSound("button_click");
+            SolverRace race = new SolverRace(mazePanel.snapshotMaze(), MazeSolver.getAlgorithmNames());
+            new RaceWindow(SwingUtilities.getWindowAncestor(this), race).start(solvePacer());
+        });
+        row1.add(raceButton);
+
         controlsPanel.add(row1);
 
         // Row 2: Solving controls
@@ -82,7 +139,7 @@ public class ControlPanel extends JPanel {
         algoLabel.setForeground(Color.WHITE);
         row2.add(algoLabel);
 
-        algorithmCombo = new JComboBox<>(new String[]{"BFS", "DFS", "Dijkstra", "A*"});
+        algorithmCombo = new JComboBox<>(MazeSolver.getAlgorithmNames());
         algorithmCombo.setSelectedItem("Dijkstra");
         algorithmCombo.setPreferredSize(new Dimension(120, 35));
         algorithmCombo.setFont(new Font("Arial", Font.PLAIN, 12));
@@ -97,8 +154,7 @@ public class ControlPanel extends JPanel {
         solveButton.addActionListener(e -> {
             soundManager.playSound("button_click");
             String algorithm = (String) algorithmCombo.getSelectedItem();
-            int speed = 310 - solveSpeedSlider.getValue();
-            mazePanel.solveMaze(algorithm, speed);
+            mazePanel.solveMaze(algorithm, solvePacer().get());
         });
         row2.add(solveButton);
 
@@ -111,6 +167,20 @@ public class ControlPanel extends JPanel {
         solveSpeedSlider.setBackground(new Color(30, 41, 59));
         row2.add(solveSpeedSlider);
 
+        pauseButton = createStyledButton("Pause", new Color(234, 179, 8));
+        pauseButton.addActionListener(e -> {
+            if (mazePanel.isSolvePaused()) {
+                mazePanel.resumeSolve();
+            } else {
+                mazePanel.pauseSolve();
+            }
+        });
+        row2.add(pauseButton);
+
+        stepButton = createStyledButton("Step", new Color(100, 116, 139));
+        stepButton.addActionListener(e -> mazePanel.stepSolve());
+        row2.add(stepButton);
+
         controlsPanel.add(row2);
 
         // Row 3: Sound controls
@@ -129,6 +199,14 @@ public class ControlPanel extends JPanel {
         });
         row3.add(soundToggle);
 
+        // Turbo: run at full speed and show N steps per 60 Hz frame, where
+        // N grows exponentially with the speed slider (1 .. ~1M)
+        turboToggle = new JCheckBox("Turbo", false);
+        turboToggle.setForeground(Color.WHITE);
+        turboToggle.setBackground(new Color(30, 41, 59));
+        turboToggle.setFont(new Font("Arial", Font.PLAIN, 12));
+        row3.add(turboToggle);
+
         JLabel volumeLabel = new JLabel("Volume:");
         volumeLabel.setForeground(Color.WHITE);
         row3.add(volumeLabel);
@@ -152,8 +230,69 @@ public class ControlPanel extends JPanel {
         });
         row3.add(muteButton);
 
+        // Replay of the last solve
+        JLabel replayLabel = new JLabel("Replay:");
+        replayLabel.setForeground(Color.WHITE);
+        row3.add(replayLabel);
+
+        traceSlider = new JSlider(0, 0, 0);
+        traceSlider.setPreferredSize(new Dimension(140, 30));
+        traceSlider.setBackground(new Color(30, 41, 59));
+        traceSlider.addChangeListener(e -> {
+            if (!syncingTraceSlider) {
+                mazePanel.seekTrace(traceSlider.getValue());
+            }
+        });
+        row3.add(traceSlider);
+
+        saveTraceButton = createStyledButton("Save", new Color(100, 116, 139));
+        saveTraceButton.setPreferredSize(new Dimension(70, 25));
+        saveTraceButton.addActionListener(e -> saveTrace());
+        row3.add(saveTraceButton);
+
+        loadTraceButton = createStyledButton("Load", new Color(100, 116, 139));
+        loadTraceButton.setPreferredSize(new Dimension(70, 25));
+        loadTraceButton.addActionListener(e -> loadTrace());
+        row3.add(loadTraceButton);
+
         controlsPanel.add(row3);
 
+        // Row 4: Maze size and view controls
+        JPanel row4 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        row4.setBackground(new Color(30, 41, 59));
+
+        JLabel sizeLabel = new JLabel("Rows x Cols:");
+        sizeLabel.setForeground(Color.WHITE);
+        row4.add(sizeLabel);
+
+        rowsSpinner = new JSpinner(new SpinnerNumberModel(mazePanel.getMazeRows(), 2, 10000, 1));
+        rowsSpinner.setPreferredSize(new Dimension(80, 25));
+        row4.add(rowsSpinner);
+
+        colsSpinner = new JSpinner(new SpinnerNumberModel(mazePanel.getMazeCols(), 2, 10000, 1));
+        colsSpinner.setPreferredSize(new Dimension(80, 25));
+        row4.add(colsSpinner);
+
+        resizeButton = createStyledButton("Resize", new Color(100, 116, 139));
+        resizeButton.setPreferredSize(new Dimension(90, 25));
+        resizeButton.addActionListener(e -> {
+            soundManager.playSound("button_click");
+            mazePanel.setMazeSize((Integer) rowsSpinner.getValue(), (Integer) colsSpinner.getValue());
+        });
+        row4.add(resizeButton);
+
+        JLabel zoomLabel = new JLabel("Zoom (Ctrl+Wheel):");
+        zoomLabel.setForeground(Color.WHITE);
+        row4.add(zoomLabel);
+
+        zoomSlider = new JSlider(MazePanel.MIN_CELL_SIZE, MazePanel.MAX_CELL_SIZE, mazePanel.getCellSize());
+        zoomSlider.setPreferredSize(new Dimension(120, 30));
+        zoomSlider.setBackground(new Color(30, 41, 59));
+        zoomSlider.addChangeListener(e -> mazePanel.setCellSize(zoomSlider.getValue()));
+        row4.add(zoomSlider);
+
+        controlsPanel.add(row4);
+
         // Bottom panel - Stats
         JPanel statsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         statsPanel.setBackground(new Color(30, 41, 59));
@@ -199,23 +338,93 @@ public class ControlPanel extends JPanel {
         statsTimer.start();
     }
 
+    private void saveTrace() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            mazePanel.saveTrace(chooser.getSelectedFile());
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not save trace: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void loadTrace() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            mazePanel.loadTrace(chooser.getSelectedFile());
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not load trace: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /** Pacers for the current solve speed settings; each call makes a fresh one. */
+    private Supplier<FramePacer> solvePacer() {
+        if (turboToggle.isSelected()) {
+            int steps = stepsPerFrame(solveSpeedSlider);
+            return () -> FramePacer.turbo(steps);
+        }
+        int speed = 310 - solveSpeedSlider.getValue();
+        return () -> FramePacer.delay(speed);
+    }
+
+    private static int stepsPerFrame(JSlider slider) {
+        double fraction = (double) (slider.getValue() - slider.getMinimum())
+                / (slider.getMaximum() - slider.getMinimum());
+        return (int) Math.round(Math.pow(2, fraction * 20));
+    }
+
     private void updateStats() {
+        // Wheel zoom happens on the panel, keep the slider in step
+        if (!zoomSlider.getValueIsAdjusting() && zoomSlider.getValue() != mazePanel.getCellSize()) {
+            zoomSlider.setValue(mazePanel.getCellSize());
+        }
+        boolean busy = mazePanel.isGenerating() || mazePanel.isSolving();
+        resizeButton.setEnabled(!busy);
+        rowsSpinner.setEnabled(!busy);
+        colsSpinner.setEnabled(!busy);
+        boolean paused = mazePanel.isSolvePaused();
+        pauseButton.setEnabled(mazePanel.isSolving());
+        pauseButton.setText(paused ? "Resume" : "Pause");
+        stepButton.setEnabled(paused);
+        raceButton.setEnabled(!busy);
+
+        // A new trace resets the replay slider to its last step
+        int traceSteps = mazePanel.getTraceSteps();
+        traceSlider.setEnabled(traceSteps > 0);
+        saveTraceButton.setEnabled(traceSteps >= 0);
+        loadTraceButton.setEnabled(!busy);
+        if (traceSlider.getMaximum() != Math.max(0, traceSteps)) {
+            syncingTraceSlider = true;
+            traceSlider.setMaximum(Math.max(0, traceSteps));
+            traceSlider.setValue(traceSlider.getMaximum());
+            syncingTraceSlider = false;
+        }
+
         if (mazePanel.isGenerating()) {
-            statsLabel.setText("🔄 Generating maze...");
+            statsLabel.setText(String.format("🔄 Generating maze... %d%%",
+                    Math.round(mazePanel.getTaskProgress() * 100)));
             generateButton.setEnabled(false);
             solveButton.setEnabled(false);
-            resetButton.setEnabled(false);
+            resetButton.setEnabled(true);
             algorithmCombo.setEnabled(false);
+            generatorCombo.setEnabled(false);
+            newestSpinner.setEnabled(false);
         } else if (mazePanel.isSolving()) {
             statsLabel.setText(String.format(
-                    "🔍 Solving... | Nodes Explored: %d | Queue/Stack Size: %d",
+                    "%s | Nodes Explored: %d | Queue/Stack Size: %d",
+                    paused ? "⏸ Paused" : "🔍 Solving...",
                     mazePanel.getNodesExplored(),
                     mazePanel.getQueueSize()
             ));
             generateButton.setEnabled(false);
             solveButton.setEnabled(false);
-            resetButton.setEnabled(false);
+            resetButton.setEnabled(true);
             algorithmCombo.setEnabled(false);
+            generatorCombo.setEnabled(false);
+            newestSpinner.setEnabled(false);
         } else {
             if (mazePanel.getPathLength() > 0) {
                 statsLabel.setText(String.format(
@@ -224,6 +433,9 @@ public class ControlPanel extends JPanel {
                         mazePanel.getPathLength(),
                         mazePanel.getNodesExplored()
                 ));
+            } else if (mazePanel.getMazeSpec() != null) {
+                // The spec is all it takes to rebuild this exact maze
+                statsLabel.setText("Maze ready | " + mazePanel.getMazeSpec());
             } else {
                 statsLabel.setText("Ready - Generate a maze to begin");
             }
@@ -231,6 +443,8 @@ public class ControlPanel extends JPanel {
             solveButton.setEnabled(true);
             resetButton.setEnabled(true);
             algorithmCombo.setEnabled(true);
+            generatorCombo.setEnabled(true);
+            newestSpinner.setEnabled(MazeGenerator.GROWING_TREE.equals(generatorCombo.getSelectedItem()));
         }
     }
 
@@ -1,63 +1,66 @@
 import java.util.*;
 
 public class DFSSolver extends MazeSolver {
+    private int[] stack;
+    private int top;
+    private BitSet visited;
+    private int[] parent;
+    private int[] cost;
+    private final int[] neighbors = new int[4];
 
     public DFSSolver(Maze maze) {
         super(maze);
     }
 
     @Override
-    public void solve(SolverListener listener) {
-        Stack<PathNode> stack = new Stack<>();
-        Set<String> visited = new HashSet<>();
-        Set<Position> explored = new HashSet<>();
-        int nodesExplored = 0;
-
-        List<Position> startPath = new ArrayList<>();
-        startPath.add(start);
-        stack.push(new PathNode(start, startPath, 0));
-        visited.add(start.toString());
-
-        while (!stack.isEmpty()) {
-            PathNode current = stack.pop();
-            Position pos = current.getPosition();
-
-            explored.add(pos);
-            nodesExplored++;
-
-            if (listener != null) {
-                List<Position> stackPositions = new ArrayList<>();
-                for (PathNode node : stack) {
-                    stackPositions.add(node.getPosition());
-                }
-                listener.onStepComplete(pos, explored, stackPositions, nodesExplored);
-            }
+    protected void initSearch() {
+        int cells = maze.getCellCount();
+        stack = new int[cells];
+        top = 0;
+        visited = new BitSet(cells);
+        parent = new int[cells];
+        cost = new int[cells];
 
-            if (pos.equals(goal)) {
-                if (listener != null) {
-                    listener.onSolutionFound(current.getPath(), current.getCost(), nodesExplored);
-                }
-                return;
-            }
+        stack[top++] = startId;
+        if (listener != null) listener.onCellEnqueued(startId);
+        visited.set(startId);
+        parent[startId] = -1;
+    }
 
-            List<Position> neighbors = maze.getAccessibleNeighbors(pos);
-            Collections.reverse(neighbors);
-
-            for (Position neighbor : neighbors) {
-                String neighborKey = neighbor.toString();
-                if (!visited.contains(neighborKey)) {
-                    visited.add(neighborKey);
-                    int weight = maze.getCell(neighbor.getRow(), neighbor.getCol())
-                            .getTerrain().getWeight();
-                    List<Position> newPath = new ArrayList<>(current.getPath());
-                    newPath.add(neighbor);
-                    stack.push(new PathNode(neighbor, newPath, current.getCost() + weight));
-                }
-            }
-        }
+    @Override
+    protected boolean expandNext() {
+        if (top == 0) return false;
+
+        int current = stack[--top];
+        nodesExplored++;
 
         if (listener != null) {
-            listener.onNoSolution();
+            listener.onCellDequeued(current);
+            listener.onCellExpanded(current, nodesExplored);
         }
+
+        if (current == goalId) {
+            finishWithPath(buildPath(parent, current), cost[current]);
+            return true;
+        }
+
+        // Push in reverse so neighbours are popped in top/right/bottom/left order
+        int count = maze.getNeighborIds(current, neighbors);
+        for (int i = count - 1; i >= 0; i--) {
+            int neighbor = neighbors[i];
+            if (!visited.get(neighbor)) {
+                visited.set(neighbor);
+                parent[neighbor] = current;
+                cost[neighbor] = cost[current] + maze.getWeight(neighbor);
+                stack[top++] = neighbor;
+                if (listener != null) listener.onCellEnqueued(neighbor);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return top;
     }
-}
\ No newline at end of file
+}
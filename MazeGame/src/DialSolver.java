@@ -0,0 +1,97 @@
+import java.util.*;
+
+/**
+ * Dijkstra with a circular bucket queue (Dial's algorithm). Terrain weights
+ * are small integers, so every tentative distance in the queue lies within
+ * maxWeight of the current one and maxWeight + 1 buckets are enough. Push
+ * and pop are O(1); stale entries are skipped when popped.
+ */
+public class DialSolver extends MazeSolver {
+    private int bucketCount;
+    private int[][] buckets;
+    private int[] bucketSizes;
+    private int queued;
+    private int distance;
+    private int[] distances;
+    private int[] parent;
+    private BitSet closed;
+    private final int[] neighbors = new int[4];
+
+    public DialSolver(Maze maze) {
+        super(maze);
+    }
+
+    @Override
+    protected void initSearch() {
+        int cells = maze.getCellCount();
+        bucketCount = TerrainType.getMaxWeight() + 1;
+        buckets = new int[bucketCount][16];
+        bucketSizes = new int[bucketCount];
+        queued = 0;
+        distances = new int[cells];
+        parent = new int[cells];
+        closed = new BitSet(cells);
+
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[startId] = 0;
+        parent[startId] = -1;
+        buckets[0][bucketSizes[0]++] = startId;
+        if (listener != null) listener.onCellEnqueued(startId);
+        queued++;
+        distance = 0;
+    }
+
+    @Override
+    protected boolean expandNext() {
+        int id;
+        while (true) {
+            if (queued == 0) return false;
+            int slot = distance % bucketCount;
+            if (bucketSizes[slot] == 0) {
+                distance++;
+                continue;
+            }
+            id = buckets[slot][--bucketSizes[slot]];
+            queued--;
+            if (!closed.get(id) && distances[id] == distance) break;
+        }
+
+        closed.set(id);
+        nodesExplored++;
+
+        if (listener != null) {
+            listener.onCellDequeued(id);
+            listener.onCellExpanded(id, nodesExplored);
+        }
+
+        if (id == goalId) {
+            finishWithPath(buildPath(parent, id), distances[id]);
+            return true;
+        }
+
+        int count = maze.getNeighborIds(id, neighbors);
+        for (int i = 0; i < count; i++) {
+            int neighbor = neighbors[i];
+            if (closed.get(neighbor)) continue;
+
+            int newCost = distance + maze.getWeight(neighbor);
+            if (newCost < distances[neighbor]) {
+                distances[neighbor] = newCost;
+                parent[neighbor] = id;
+                int target = newCost % bucketCount;
+                if (bucketSizes[target] == buckets[target].length) {
+                    buckets[target] = Arrays.copyOf(buckets[target], bucketSizes[target] * 2);
+                }
+                buckets[target][bucketSizes[target]++] = neighbor;
+                if (listener != null) listener.onCellEnqueued(neighbor);
+                queued++;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return queued;
+    }
+}
@@ -1,66 +1,70 @@
 import java.util.*;
 
 public class DijkstraSolver extends MazeSolver {
+    private PathNodeHeap pq;
+    private int[] distances;
+    private int[] parent;
+    private BitSet closed;
+    private final int[] neighbors = new int[4];
 
     public DijkstraSolver(Maze maze) {
         super(maze);
     }
 
     @Override
-    public void solve(SolverListener listener) {
-        PriorityQueue<PathNode> pq = new PriorityQueue<>();
-        Map<String, Integer> distances = new HashMap<>();
-        Set<Position> explored = new HashSet<>();
-        int nodesExplored = 0;
+    protected void initSearch() {
+        int cells = maze.getCellCount();
+        pq = new PathNodeHeap();
+        distances = new int[cells];
+        parent = new int[cells];
+        closed = new BitSet(cells);
 
-        List<Position> startPath = new ArrayList<>();
-        startPath.add(start);
-        pq.offer(new PathNode(start, startPath, 0));
-        distances.put(start.toString(), 0);
-
-        while (!pq.isEmpty()) {
-            PathNode current = pq.poll();
-            Position pos = current.getPosition();
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[startId] = 0;
+        parent[startId] = -1;
+        pq.offer(PathNode.pack(startId, 0));
+        if (listener != null) listener.onCellEnqueued(startId);
+    }
 
-            if (explored.contains(pos)) continue;
+    @Override
+    protected boolean expandNext() {
+        int id;
+        do {
+            if (pq.isEmpty()) return false;
+            id = PathNode.getCell(pq.poll());
+        } while (closed.get(id));
 
-            explored.add(pos);
-            nodesExplored++;
+        closed.set(id);
+        nodesExplored++;
 
-            if (listener != null) {
-                List<Position> queuePositions = new ArrayList<>();
-                for (PathNode node : pq) {
-                    queuePositions.add(node.getPosition());
-                }
-                listener.onStepComplete(pos, explored, queuePositions, nodesExplored);
-            }
-
-            if (pos.equals(goal)) {
-                if (listener != null) {
-                    listener.onSolutionFound(current.getPath(), current.getCost(), nodesExplored);
-                }
-                return;
-            }
+        if (listener != null) {
+            listener.onCellDequeued(id);
+            listener.onCellExpanded(id, nodesExplored);
+        }
 
-            for (Position neighbor : maze.getAccessibleNeighbors(pos)) {
-                if (explored.contains(neighbor)) continue;
+        if (id == goalId) {
+            finishWithPath(buildPath(parent, id), distances[id]);
+            return true;
+        }
 
-                int weight = maze.getCell(neighbor.getRow(), neighbor.getCol())
-                        .getTerrain().getWeight();
-                int newCost = current.getCost() + weight;
+        int count = maze.getNeighborIds(id, neighbors);
+        for (int i = 0; i < count; i++) {
+            int neighbor = neighbors[i];
+            if (closed.get(neighbor)) continue;
 
-                String neighborKey = neighbor.toString();
-                if (newCost < distances.getOrDefault(neighborKey, Integer.MAX_VALUE)) {
-                    distances.put(neighborKey, newCost);
-                    List<Position> newPath = new ArrayList<>(current.getPath());
-                    newPath.add(neighbor);
-                    pq.offer(new PathNode(neighbor, newPath, newCost));
-                }
+            int newCost = distances[id] + maze.getWeight(neighbor);
+            if (newCost < distances[neighbor]) {
+                distances[neighbor] = newCost;
+                parent[neighbor] = id;
+                pq.offer(PathNode.pack(neighbor, newCost));
+                if (listener != null) listener.onCellEnqueued(neighbor);
             }
         }
+        return true;
+    }
 
-        if (listener != null) {
-            listener.onNoSolution();
-        }
+    @Override
+    public int getFrontierSize() {
+        return pq.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,292 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Eller's algorithm: builds a perfect maze one row at a time, keeping only
+ * the set label of each cell in the current row. Memory is O(columns) no
+ * matter how many rows are generated, and each row is handed to a
+ * {@link RowSink} as soon as it is finished, so a sink can render or write
+ * the first rows while later ones are still being generated.
+ *
+ * Like {@link MazeGenerator}, the top wall of the first cell and the bottom
+ * wall of the last cell are opened as entrance and exit.
+ */
+public class EllerGenerator {
+    private final int cols;
+    private final RandomGenerator random;
+
+    // Set label of every cell in the current row; labels stay below cols
+    private final int[] set;
+    // Union-find over labels, used to merge sets along the row
+    private final int[] parent;
+    private final int[] remaining;
+    private final boolean[] carried;
+    private final boolean[] rightWalls;
+    private final boolean[] bottomWalls;
+
+    // Coin flips are drawn 32 at a time
+    private int coins;
+    private int coinsLeft;
+
+    public EllerGenerator(int cols) {
+        this(cols, new Random());
+    }
+
+    public EllerGenerator(int cols, RandomGenerator random) {
+        if (cols <= 0) {
+            throw new IllegalArgumentException("cols must be positive: " + cols);
+        }
+        this.cols = cols;
+        this.random = random;
+        set = new int[cols];
+        parent = new int[cols];
+        remaining = new int[cols];
+        carried = new boolean[cols];
+        rightWalls = new boolean[cols];
+        bottomWalls = new boolean[cols];
+    }
+
+    /** Fills {@code maze}, which must still have all its walls. */
+    public void generate(Maze maze, MazeGenerator.MazeGenerationListener listener) {
+        if (maze.getCols() != cols) {
+            throw new IllegalArgumentException("Maze has " + maze.getCols() + " columns, expected " + cols);
+        }
+        generate(maze.getRows(), new MazeSink(maze, listener));
+    }
+
+    /**
+     * Generates {@code rows} rows into {@code sink}. Stops without calling
+     * {@link RowSink#endMaze()} if the thread is interrupted.
+     */
+    public void generate(long rows, RowSink sink) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("rows must be positive: " + rows);
+        }
+        for (int c = 0; c < cols; c++) {
+            set[c] = c;
+        }
+        sink.beginMaze(rows, cols);
+
+        for (long row = 0; row < rows; row++) {
+            // Cooperative cancellation: leave the output half-written and report nothing
+            if (Thread.currentThread().isInterrupted()) return;
+
+            boolean lastRow = row == rows - 1;
+            joinAcross(lastRow);
+            if (lastRow) {
+                Arrays.fill(bottomWalls, true);
+                bottomWalls[cols - 1] = false;
+            } else {
+                carryDown();
+            }
+            sink.acceptRow(row, rightWalls, bottomWalls);
+            if (!lastRow) {
+                relabel();
+            }
+        }
+        sink.endMaze();
+    }
+
+    // Randomly joins neighbouring cells of different sets; the last row joins them all
+    private void joinAcross(boolean lastRow) {
+        for (int c = 0; c < cols; c++) {
+            parent[c] = c;
+        }
+        for (int c = 0; c < cols - 1; c++) {
+            int left = find(set[c]);
+            int right = find(set[c + 1]);
+            if (left != right && (lastRow || flip())) {
+                parent[right] = left;
+                rightWalls[c] = false;
+            } else {
+                rightWalls[c] = true;
+            }
+        }
+        rightWalls[cols - 1] = true;
+        for (int c = 0; c < cols; c++) {
+            set[c] = find(set[c]);
+        }
+    }
+
+    // Opens the bottom wall of random cells, at least one per set
+    private void carryDown() {
+        Arrays.fill(remaining, 0);
+        Arrays.fill(carried, false);
+        for (int c = 0; c < cols; c++) {
+            remaining[set[c]]++;
+        }
+        for (int c = 0; c < cols; c++) {
+            int label = set[c];
+            remaining[label]--;
+            boolean down = flip() || (remaining[label] == 0 && !carried[label]);
+            bottomWalls[c] = !down;
+            if (down) {
+                carried[label] = true;
+            }
+        }
+    }
+
+    // Cells below an open bottom wall keep their set; the rest get unused labels
+    private void relabel() {
+        int free = 0;
+        for (int c = 0; c < cols; c++) {
+            if (bottomWalls[c]) {
+                while (carried[free]) free++;
+                set[c] = free++;
+            }
+        }
+    }
+
+    private boolean flip() {
+        if (coinsLeft == 0) {
+            coins = random.nextInt();
+            coinsLeft = 32;
+        }
+        coinsLeft--;
+        boolean heads = (coins & 1) != 0;
+        coins >>>= 1;
+        return heads;
+    }
+
+    private int find(int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /**
+     * Receives finished rows in order. The wall arrays are reused for the
+     * next row, so a sink must copy anything it wants to keep.
+     */
+    public interface RowSink {
+        void beginMaze(long rows, int cols);
+
+        /** Right and bottom walls of every cell in {@code row}; left and top come from earlier rows. */
+        void acceptRow(long row, boolean[] rightWalls, boolean[] bottomWalls);
+
+        void endMaze();
+    }
+
+    /**
+     * Writes rows into a {@link Maze} and reports them as carve events, so
+     * the usual generation listener can draw each row as it arrives.
+     */
+    public static class MazeSink implements RowSink {
+        private final Maze maze;
+        private final MazeGenerator.MazeGenerationListener listener;
+
+        public MazeSink(Maze maze, MazeGenerator.MazeGenerationListener listener) {
+            this.maze = maze;
+            this.listener = listener;
+        }
+
+        @Override
+        public void beginMaze(long rows, int cols) {
+            maze.setTopWall(0, 0, false);
+        }
+
+        @Override
+        public void acceptRow(long rowIndex, boolean[] rightWalls, boolean[] bottomWalls) {
+            int row = (int) rowIndex;
+            for (int c = 0; c < rightWalls.length; c++) {
+                maze.setRightWall(row, c, rightWalls[c]);
+                maze.setBottomWall(row, c, bottomWalls[c]);
+                int id = maze.cellId(row, c);
+                maze.setVisited(id, true);
+                if (listener == null) continue;
+
+                boolean carved = false;
+                if (row > 0 && !maze.hasTopWall(row, c)) {
+                    listener.onCellCarved(maze.cellId(row - 1, c), id, rightWalls.length);
+                    carved = true;
+                }
+                if (c > 0 && !rightWalls[c - 1]) {
+                    listener.onCellCarved(id - 1, id, rightWalls.length);
+                    carved = true;
+                }
+                if (!carved) {
+                    listener.onCellCarved(-1, id, rightWalls.length);
+                }
+            }
+        }
+
+        @Override
+        public void endMaze() {
+            if (listener != null) {
+                listener.onGenerationComplete();
+            }
+        }
+    }
+
+    /**
+     * Writes the maze as ASCII art, two text lines per row:
+     * <pre>
+     * +   +---+---+
+     * |       |   |
+     * +---+   +   +
+     * |           |
+     * +---+---+   +
+     * </pre>
+     * Output goes through a {@link PrintWriter}; {@link #close()} reports
+     * any write error that happened along the way.
+     */
+    public static class TextFileSink implements RowSink, Closeable {
+        private final String name;
+        private final PrintWriter writer;
+        private final StringBuilder line = new StringBuilder();
+
+        public TextFileSink(File file) throws IOException {
+            this(file.getName(), new FileOutputStream(file));
+        }
+
+        public TextFileSink(String name, OutputStream out) {
+            this.name = name;
+            this.writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public void beginMaze(long rows, int cols) {
+            line.setLength(0);
+            line.append('+');
+            for (int c = 0; c < cols; c++) {
+                line.append(c == 0 ? "   " : "---").append('+');
+            }
+            writer.println(line);
+        }
+
+        @Override
+        public void acceptRow(long row, boolean[] rightWalls, boolean[] bottomWalls) {
+            line.setLength(0);
+            line.append('|');
+            for (boolean wall : rightWalls) {
+                line.append("   ").append(wall ? '|' : ' ');
+            }
+            writer.println(line);
+
+            line.setLength(0);
+            line.append('+');
+            for (boolean wall : bottomWalls) {
+                line.append(wall ? "---" : "   ").append('+');
+            }
+            writer.println(line);
+        }
+
+        @Override
+        public void endMaze() {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            if (writer.checkError()) {
+                throw new IOException("Could not write maze to " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Adapts the streaming {@link EllerGenerator} to the {@link MazeGenerator}
+ * interface by streaming its rows straight into the maze.
+ */
+public class EllerMazeGenerator extends MazeGenerator {
+    public EllerMazeGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        EllerGenerator.MazeSink sink = new EllerGenerator.MazeSink(maze, listener) {
+            @Override
+            public void endMaze() {
+                // MazeGenerator.generate reports completion
+            }
+        };
+        new EllerGenerator(cols, random).generate(rows, sink);
+        return !isCancelled();
+    }
+}
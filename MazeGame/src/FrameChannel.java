@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/**
+ * Single-producer, single-consumer hand-off of {@link ProgressFrame}s from a
+ * solver or generator thread to the EDT. The worker records overlay events
+ * into a private buffer and publishes them as an immutable frame with one
+ * volatile write; the painter follows the chain without locking. Neither
+ * side ever waits for the other.
+ *
+ * While the painter is behind, {@link #publish} keeps accumulating events
+ * into the pending buffer instead of adding frames, so the chain never
+ * grows past one unread frame. {@link #publishNow} always publishes and is
+ * used for the final frame of a run.
+ *
+ * The channel itself only holds the newest frame. The reader takes the
+ * first one once, through {@link #takeHead}, and then keeps only the last
+ * frame it applied, so consumed frames can be garbage collected.
+ */
+public class FrameChannel {
+    // Handed to the reader once and then dropped
+    private ProgressFrame head;
+
+    // Worker side
+    private ProgressFrame tail;
+    private int[] pending = new int[64];
+    private int pendingCount;
+
+    // Painter side
+    private volatile long consumedVersion;
+
+    public FrameChannel(int phase) {
+        head = new ProgressFrame(0, new int[0], phase, 0, 0, 0);
+        tail = head;
+    }
+
+    /**
+     * First frame of the chain; the reader starts here. Can be taken only
+     * once, so the channel does not keep the whole chain reachable.
+     */
+    public ProgressFrame takeHead() {
+        ProgressFrame first = head;
+        if (first == null) {
+            throw new IllegalStateException("Head frame already taken");
+        }
+        head = null;
+        return first;
+    }
+
+    public void record(int event, int cell) {
+        if (pendingCount + 2 > pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[pendingCount++] = event;
+        pending[pendingCount++] = cell;
+    }
+
+    /**
+     * Publishes the pending events if the painter has consumed the last
+     * frame. Returns true if a frame was published.
+     */
+    public boolean publish(int phase, int nodesExplored, int pathCost, int pathLength) {
+        if (consumedVersion != tail.getVersion()) return false;
+        publishNow(phase, nodesExplored, pathCost, pathLength);
+        return true;
+    }
+
+    public void publishNow(int phase, int nodesExplored, int pathCost, int pathLength) {
+        ProgressFrame frame = new ProgressFrame(tail.getVersion() + 1, Arrays.copyOf(pending, pendingCount),
+                phase, nodesExplored, pathCost, pathLength);
+        pendingCount = 0;
+        tail.setNext(frame);
+        tail = frame;
+    }
+
+    /** Called by the painter once it has applied {@code frame}. */
+    public void markConsumed(ProgressFrame frame) {
+        consumedVersion = frame.getVersion();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Decides how often a generator or solver thread hands a frame to the
+ * painter and how long it waits in between.
+ *
+ * In delay mode every step is its own frame followed by a fixed sleep, which
+ * is the classic slow animation. In turbo mode the algorithm runs flat out for
+ * {@code stepsPerFrame} steps and then waits for the next tick of a 60 Hz
+ * frame clock, so the animation speed no longer depends on sleep granularity.
+ *
+ * Typical use after each step:
+ * <pre>
+ * if (pacer.endStep()) {
+ *     channel.publish(...);
+ *     pacer.awaitNextFrame();
+ * }
+ * </pre>
+ */
+public class FramePacer {
+    public static final int FRAME_RATE = 60;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAME_RATE;
+
+    private final int stepsPerFrame;
+    private final int delayMillis;
+    private int steps;
+    private long nextFrame;
+
+    private FramePacer(int stepsPerFrame, int delayMillis) {
+        this.stepsPerFrame = stepsPerFrame;
+        this.delayMillis = delayMillis;
+    }
+
+    /** One step per frame, sleeping {@code millis} after each. */
+    public static FramePacer delay(int millis) {
+        return new FramePacer(1, Math.max(0, millis));
+    }
+
+    /** {@code stepsPerFrame} steps per tick of the 60 Hz frame clock. */
+    public static FramePacer turbo(int stepsPerFrame) {
+        return new FramePacer(Math.max(1, stepsPerFrame), -1);
+    }
+
+    public boolean isTurbo() { return delayMillis < 0; }
+    public int getStepsPerFrame() { return stepsPerFrame; }
+    public int getDelayMillis() { return Math.max(0, delayMillis); }
+
+    /** Counts one algorithm step; true when a frame should be published. */
+    public boolean endStep() {
+        if (++steps < stepsPerFrame) return false;
+        steps = 0;
+        return true;
+    }
+
+    /**
+     * Waits until the next frame is due. An interrupt ends the wait early and
+     * is left set, so the algorithm loop sees it and stops.
+     */
+    public void awaitNextFrame() {
+        try {
+            if (!isTurbo()) {
+                Thread.sleep(delayMillis);
+                return;
+            }
+            long now = System.nanoTime();
+            if (nextFrame == 0 || now - nextFrame > FRAME_NANOS) {
+                // First frame, or we fell behind: restart the clock from now
+                nextFrame = now;
+            }
+            nextFrame += FRAME_NANOS;
+            long wait = nextFrame - now;
+            if (wait > 0) {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
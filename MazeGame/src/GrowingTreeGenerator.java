@@ -0,0 +1,96 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Growing tree: keeps a list of active cells, carves from one of them to a
+ * random unvisited neighbour, and drops a cell once it has none left. Which
+ * active cell is used decides the texture: always the newest gives the
+ * backtracker's long corridors, always a random one gives Prim-like short
+ * dead ends, and anything in between mixes the two.
+ */
+public class GrowingTreeGenerator extends MazeGenerator {
+    private final double newestProbability;
+
+    private int[] active;
+    private int[] slot;
+    private int[] older;
+    private int[] newer;
+    private int size;
+    private int newestCell;
+
+    /**
+     * @param newestProbability chance of growing from the newest active
+     *                          cell instead of a random one, from 0 to 1
+     */
+    public GrowingTreeGenerator(Maze maze, RandomGenerator random, double newestProbability) {
+        super(maze, random);
+        if (newestProbability < 0 || newestProbability > 1) {
+            throw new IllegalArgumentException("newestProbability must be in [0, 1]: " + newestProbability);
+        }
+        this.newestProbability = newestProbability;
+    }
+
+    public double getNewestProbability() { return newestProbability; }
+
+    @Override
+    protected boolean carveMaze() {
+        int cellCount = maze.getCellCount();
+        // Active cells in no particular order for random picks, plus a
+        // doubly linked list in insertion order for the newest pick
+        active = new int[cellCount];
+        slot = new int[cellCount];
+        older = new int[cellCount];
+        newer = new int[cellCount];
+        size = 0;
+        newestCell = -1;
+        int[] choices = new int[4];
+
+        int start = random.nextInt(cellCount);
+        visit(start, 1);
+        add(start);
+
+        while (size > 0) {
+            if (isCancelled()) return false;
+
+            boolean newest = newestProbability >= 1
+                    || (newestProbability > 0 && random.nextDouble() < newestProbability);
+            int cell = newest ? newestCell : active[random.nextInt(size)];
+
+            int count = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbor(cell, direction);
+                if (next >= 0 && !maze.isVisited(next)) {
+                    choices[count++] = direction;
+                }
+            }
+            if (count == 0) {
+                remove(cell);
+            } else {
+                add(carve(cell, choices[random.nextInt(count)], size + 1));
+            }
+        }
+        active = slot = older = newer = null;
+        return true;
+    }
+
+    private void add(int cell) {
+        active[size] = cell;
+        slot[cell] = size++;
+        older[cell] = newestCell;
+        newer[cell] = -1;
+        if (newestCell >= 0) newer[newestCell] = cell;
+        newestCell = cell;
+    }
+
+    private void remove(int cell) {
+        int last = active[--size];
+        active[slot[cell]] = last;
+        slot[last] = slot[cell];
+
+        if (older[cell] >= 0) newer[older[cell]] = newer[cell];
+        if (newer[cell] >= 0) {
+            older[newer[cell]] = older[cell];
+        } else {
+            newestCell = older[cell];
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.*;
+
+/**
+ * Dijkstra over a {@link JunctionGraph}. Only junctions, dead ends and the
+ * two endpoints are expanded; the cell path is rebuilt from the node path
+ * by walking the chosen corridors once the goal is settled.
+ */
+public class JunctionDijkstraSolver extends MazeSolver {
+    private JunctionGraph graph;
+    private PathNodeHeap pq;
+    private int[] distances;
+    private int[] parentNode;
+    private int[] parentSlot;
+    private BitSet closed;
+    private int goalNode;
+
+    public JunctionDijkstraSolver(Maze maze) {
+        super(maze);
+    }
+
+    /**
+     * Solver that reuses a graph built earlier. The graph must have been
+     * built for the solver's endpoints, the maze's top-left and
+     * bottom-right cells.
+     */
+    public JunctionDijkstraSolver(JunctionGraph graph) {
+        super(graph.getMaze());
+        if (graph.getStartId() != startId || graph.getGoalId() != goalId) {
+            throw new IllegalArgumentException("Junction graph was built for cells "
+                    + graph.getStartId() + " -> " + graph.getGoalId()
+                    + ", not " + startId + " -> " + goalId);
+        }
+        this.graph = graph;
+    }
+
+    @Override
+    protected void initSearch() {
+        if (graph == null) {
+            graph = new JunctionGraph(maze, startId, goalId);
+        }
+        int nodes = graph.getNodeCount();
+        int startNode = graph.getNode(startId);
+        goalNode = graph.getNode(goalId);
+
+        pq = new PathNodeHeap();
+        distances = new int[nodes];
+        parentNode = new int[nodes];
+        parentSlot = new int[nodes];
+        closed = new BitSet(nodes);
+
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[startNode] = 0;
+        parentNode[startNode] = -1;
+        pq.offer(PathNode.pack(startNode, 0));
+        if (listener != null) listener.onCellEnqueued(startId);
+    }
+
+    @Override
+    protected boolean expandNext() {
+        int node;
+        do {
+            if (pq.isEmpty()) return false;
+            node = PathNode.getCell(pq.poll());
+        } while (closed.get(node));
+
+        closed.set(node);
+        nodesExplored++;
+
+        if (listener != null) {
+            int cell = graph.getNodeCell(node);
+            listener.onCellDequeued(cell);
+            listener.onCellExpanded(cell, nodesExplored);
+        }
+
+        if (node == goalNode) {
+            finishWithPath(expandPath(node), distances[node]);
+            return true;
+        }
+
+        for (int slot = 0; slot < 4; slot++) {
+            int target = graph.getEdgeTarget(node, slot);
+            if (target < 0 || target == node || closed.get(target)) continue;
+
+            int newCost = distances[node] + graph.getEdgeCost(node, slot);
+            if (newCost < distances[target]) {
+                distances[target] = newCost;
+                parentNode[target] = node;
+                parentSlot[target] = slot;
+                pq.offer(PathNode.pack(target, newCost));
+                if (listener != null) listener.onCellEnqueued(graph.getNodeCell(target));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return pq.size();
+    }
+
+    private List<Position> expandPath(int goalNode) {
+        List<Integer> chain = new ArrayList<>();
+        for (int node = goalNode; parentNode[node] != -1; node = parentNode[node]) {
+            chain.add(node);
+        }
+        Collections.reverse(chain);
+
+        List<Position> path = new ArrayList<>();
+        path.add(start);
+        for (int node : chain) {
+            graph.expandEdge(parentNode[node], parentSlot[node], path);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.*;
+
+/**
+ * Maze with its corridors contracted. Every cell that does not have
+ * exactly two open sides (junctions and dead ends), plus the start and
+ * goal cells, becomes a node. Each corridor of two-sided cells between two
+ * nodes becomes an edge carrying the summed terrain weight of the cells
+ * strictly inside it.
+ *
+ * Edges are stored in the slot of the neighbour they leave through (same
+ * order as {@link Maze#getNeighborIds}), so a corridor can be walked again
+ * to expand a node path back into cells without storing the corridors.
+ * Loops are fine: a corridor that returns to its own node is just a
+ * self-edge, and parallel corridors are separate edges.
+ */
+public class JunctionGraph {
+    private final Maze maze;
+    private final int startId;
+    private final int goalId;
+    private final int[] nodeOfCell;
+    private final int[] nodeCells;
+    private final int[] edgeTarget;
+    private final int[] edgeInterior;
+
+    public JunctionGraph(Maze maze, int startId, int goalId) {
+        this.maze = maze;
+        this.startId = startId;
+        this.goalId = goalId;
+        int cells = maze.getCellCount();
+        int[] neighbors = new int[4];
+
+        nodeOfCell = new int[cells];
+        int nodeCount = 0;
+        for (int id = 0; id < cells; id++) {
+            boolean node = id == startId || id == goalId || maze.getNeighborIds(id, neighbors) != 2;
+            nodeOfCell[id] = node ? nodeCount++ : -1;
+        }
+
+        nodeCells = new int[nodeCount];
+        edgeTarget = new int[nodeCount * 4];
+        edgeInterior = new int[nodeCount * 4];
+        Arrays.fill(edgeTarget, -1);
+
+        int[] walk = new int[2];
+        for (int id = 0; id < cells; id++) {
+            int node = nodeOfCell[id];
+            if (node < 0) continue;
+            nodeCells[node] = id;
+
+            int count = maze.getNeighborIds(id, neighbors);
+            for (int slot = 0; slot < count; slot++) {
+                walkCorridor(id, neighbors[slot], null, walk);
+                edgeTarget[node * 4 + slot] = walk[0];
+                edgeInterior[node * 4 + slot] = walk[1];
+            }
+        }
+    }
+
+    public Maze getMaze() { return maze; }
+    public int getStartId() { return startId; }
+    public int getGoalId() { return goalId; }
+    public int getNodeCount() { return nodeCells.length; }
+    public int getNodeCell(int node) { return nodeCells[node]; }
+    public int getNode(int cell) { return nodeOfCell[cell]; }
+
+    /** Target node of the edge leaving {@code node} through {@code slot}, or -1. */
+    public int getEdgeTarget(int node, int slot) { return edgeTarget[node * 4 + slot]; }
+
+    /** Cost of travelling along the edge, including entering the target node's cell. */
+    public int getEdgeCost(int node, int slot) {
+        int target = edgeTarget[node * 4 + slot];
+        return edgeInterior[node * 4 + slot] + maze.getWeight(nodeCells[target]);
+    }
+
+    /**
+     * Appends the cells of the corridor leaving {@code node} through
+     * {@code slot} to {@code path}, excluding the node's own cell and
+     * including the target node's cell.
+     */
+    public void expandEdge(int node, int slot, List<Position> path) {
+        int[] neighbors = new int[4];
+        int from = nodeCells[node];
+        maze.getNeighborIds(from, neighbors);
+        walkCorridor(from, neighbors[slot], path, new int[2]);
+    }
+
+    private void walkCorridor(int from, int first, List<Position> path, int[] result) {
+        int[] neighbors = new int[4];
+        int previous = from;
+        int current = first;
+        int interior = 0;
+
+        while (nodeOfCell[current] < 0) {
+            if (path != null) path.add(maze.toPosition(current));
+            interior += maze.getWeight(current);
+            maze.getNeighborIds(current, neighbors);
+            int next = neighbors[0] == previous ? neighbors[1] : neighbors[0];
+            previous = current;
+            current = next;
+        }
+        if (path != null) path.add(maze.toPosition(current));
+
+        result[0] = nodeOfCell[current];
+        result[1] = interior;
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Randomized Kruskal: visits every interior wall in shuffled order and
+ * removes it when the cells on both sides are not yet connected, tracked
+ * with a union-find over cell ids. Many small trees grow at once and merge,
+ * so the maze has lots of short dead ends, much like Prim.
+ */
+public class KruskalGenerator extends MazeGenerator {
+    private int[] parent;
+    private byte[] rank;
+
+    public KruskalGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        int cellCount = maze.getCellCount();
+
+        // Walls are encoded as cell * 2 + (0 for the right wall, 1 for the bottom one)
+        int[] walls = new int[(rows * (cols - 1)) + ((rows - 1) * cols)];
+        int count = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cell % cols < cols - 1) walls[count++] = cell << 1;
+            if (cell / cols < rows - 1) walls[count++] = cell << 1 | 1;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int wall = walls[i];
+            walls[i] = walls[j];
+            walls[j] = wall;
+        }
+
+        parent = new int[cellCount];
+        rank = new byte[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            parent[cell] = cell;
+        }
+
+        if (cellCount == 1) {
+            visit(0, 0);
+        }
+        int joined = 0;
+        for (int i = 0; i < count && joined < cellCount - 1; i++) {
+            if (isCancelled()) return false;
+
+            int cell = walls[i] >>> 1;
+            int direction = (walls[i] & 1) == 0 ? 1 : 2;
+            int a = find(cell);
+            int b = find(neighbor(cell, direction));
+            if (a != b) {
+                // Union by rank keeps the trees shallow
+                if (rank[a] < rank[b]) {
+                    parent[a] = b;
+                } else {
+                    if (rank[a] == rank[b]) rank[a]++;
+                    parent[b] = a;
+                }
+                carve(cell, direction, count - i - 1);
+                joined++;
+            }
+        }
+        parent = null;
+        rank = null;
+        return true;
+    }
+
+    private int find(int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+}
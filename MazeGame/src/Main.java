@@ -1,7 +1,19 @@
 import javax.swing.*;
+import java.util.Arrays;
 
 public class Main {
     public static void main(String[] args) {
+        // "batch ..." runs the headless generate-and-solve tool instead of the UI
+        if (args.length > 0 && args[0].equals("batch")) {
+            BatchMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "bench ..." runs the micro-benchmarks
+        if (args.length > 0 && args[0].equals("bench")) {
+            MazeBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             MazeFrame frame = new MazeFrame();
             frame.setVisible(true);
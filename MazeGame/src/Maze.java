@@ -1,66 +1,395 @@
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
+/**
+ * Grid of cells stored as bit planes instead of one object per cell.
+ *
+ * Only the right and bottom wall of every cell is stored; the top and left
+ * walls are read from the neighbour above / to the left, plus two small
+ * border planes for row 0 and column 0. Terrain is a 2-bit code per cell
+ * (the {@link TerrainType} ordinal) and the visited flag is a plain bitset.
+ * Cells are addressed by id {@code row * cols + col}.
+ */
 public class Maze {
+    private static final int MAGIC = 0x4D5A4D5A; // "MZMZ"
+    private static final int FORMAT_VERSION = 2;
+
+    private static final VarHandle PLANE_WORD = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final TerrainType[] TERRAINS = TerrainType.values();
+    private static final int[] WEIGHTS = new int[TERRAINS.length];
+
+    static {
+        for (int i = 0; i < TERRAINS.length; i++) {
+            WEIGHTS[i] = TERRAINS[i].getWeight();
+        }
+    }
+
     private int rows;
     private int cols;
-    private Cell[][] grid;
+    // Terrain is drawn from a stream derived from the seed and the number of
+    // times it has been drawn, so copies and loaded mazes reset the same way
+    private final long terrainSeed;
+    private int terrainRound;
+    private final TerrainMix terrainMix;
+
+    private long[] rightWalls;
+    private long[] bottomWalls;
+    private long[] topBorder;
+    private long[] leftBorder;
+    private long[] terrain;
+    private long[] visited;
 
     public Maze(int rows, int cols) {
+        this(rows, cols, new Random());
+    }
+
+    /**
+     * Maze whose terrain (also after {@link #reset()}) comes from a seed
+     * drawn from {@code random}; nothing else is taken from it.
+     */
+    public Maze(int rows, int cols, RandomGenerator random) {
+        this(rows, cols, random, TerrainMix.DEFAULT);
+    }
+
+    /** Same, with terrain drawn from {@code terrainMix} instead of the default mix. */
+    public Maze(int rows, int cols, RandomGenerator random, TerrainMix terrainMix) {
         this.rows = rows;
         this.cols = cols;
-        this.grid = new Cell[rows][cols];
+        this.terrainSeed = random.nextLong();
+        this.terrainMix = terrainMix;
+        int cells = rows * cols;
+        this.rightWalls = new long[words(cells)];
+        this.bottomWalls = new long[words(cells)];
+        this.topBorder = new long[words(cols)];
+        this.leftBorder = new long[words(rows)];
+        this.terrain = new long[(cells + 31) >>> 5];
+        this.visited = new long[words(cells)];
         initializeMaze();
     }
 
+    // Used by read(); the planes are filled in by the caller
+    private Maze(int rows, int cols, long terrainSeed, int terrainRound, TerrainMix terrainMix) {
+        this.rows = rows;
+        this.cols = cols;
+        this.terrainSeed = terrainSeed;
+        this.terrainRound = terrainRound;
+        this.terrainMix = terrainMix;
+    }
+
+    private Maze(Maze other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.terrainSeed = other.terrainSeed;
+        this.terrainRound = other.terrainRound;
+        this.terrainMix = other.terrainMix;
+        this.rightWalls = other.rightWalls.clone();
+        this.bottomWalls = other.bottomWalls.clone();
+        this.topBorder = other.topBorder.clone();
+        this.leftBorder = other.leftBorder.clone();
+        this.terrain = other.terrain.clone();
+        this.visited = other.visited.clone();
+    }
+
+    /** Independent copy of this maze, e.g. to solve while the original changes. */
+    public Maze copy() {
+        return new Maze(this);
+    }
+
     private void initializeMaze() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                grid[i][j] = new Cell();
-                grid[i][j].setTerrain(TerrainType.getRandomTerrain());
-            }
+        Arrays.fill(rightWalls, -1L);
+        Arrays.fill(bottomWalls, -1L);
+        Arrays.fill(topBorder, -1L);
+        Arrays.fill(leftBorder, -1L);
+        Arrays.fill(visited, 0L);
+        Arrays.fill(terrain, 0L);
+
+        SplittableRandom random = new SplittableRandom(roundSeed(terrainSeed, terrainRound++));
+        int cells = rows * cols;
+        for (int id = 0; id < cells; id++) {
+            setTerrainCode(id, terrainMix.pick(random).ordinal());
         }
-        grid[0][0].setTerrain(TerrainType.DEFAULT);
-        grid[rows - 1][cols - 1].setTerrain(TerrainType.DEFAULT);
+        setTerrainCode(0, TerrainType.DEFAULT.ordinal());
+        setTerrainCode(cells - 1, TerrainType.DEFAULT.ordinal());
     }
 
     public int getRows() { return rows; }
     public int getCols() { return cols; }
-    public Cell getCell(int row, int col) { return grid[row][col]; }
+    public int getCellCount() { return rows * cols; }
+    public TerrainMix getTerrainMix() { return terrainMix; }
+    public Cell getCell(int row, int col) { return new Cell(this, row, col); }
+
+    public int cellId(int row, int col) { return row * cols + col; }
+    public int rowOf(int id) { return id / cols; }
+    public int colOf(int id) { return id % cols; }
+    public Position toPosition(int id) { return new Position(id / cols, id % cols); }
 
     public boolean isValidPosition(int row, int col) {
         return row >= 0 && row < rows && col >= 0 && col < cols;
     }
 
+    // Walls
+    public boolean hasTopWall(int row, int col) {
+        return row == 0 ? get(topBorder, col) : get(bottomWalls, cellId(row - 1, col));
+    }
+
+    public boolean hasRightWall(int row, int col) {
+        return get(rightWalls, cellId(row, col));
+    }
+
+    public boolean hasBottomWall(int row, int col) {
+        return get(bottomWalls, cellId(row, col));
+    }
+
+    public boolean hasLeftWall(int row, int col) {
+        return col == 0 ? get(leftBorder, row) : get(rightWalls, cellId(row, col - 1));
+    }
+
+    public void setTopWall(int row, int col, boolean wall) {
+        if (row == 0) {
+            set(topBorder, col, wall);
+        } else {
+            set(bottomWalls, cellId(row - 1, col), wall);
+        }
+    }
+
+    public void setRightWall(int row, int col, boolean wall) {
+        set(rightWalls, cellId(row, col), wall);
+    }
+
+    public void setBottomWall(int row, int col, boolean wall) {
+        set(bottomWalls, cellId(row, col), wall);
+    }
+
+    public void setLeftWall(int row, int col, boolean wall) {
+        if (col == 0) {
+            set(leftBorder, row, wall);
+        } else {
+            set(rightWalls, cellId(row, col - 1), wall);
+        }
+    }
+
+    // Terrain
+    public TerrainType getTerrain(int row, int col) {
+        return TERRAINS[terrainCode(cellId(row, col))];
+    }
+
+    public void setTerrain(int row, int col, TerrainType type) {
+        setTerrainCode(cellId(row, col), type.ordinal());
+    }
+
+    public int getWeight(int id) {
+        return WEIGHTS[terrainCode(id)];
+    }
+
+    private int terrainCode(int id) {
+        return (int) (terrain[id >>> 5] >>> ((id & 31) << 1)) & 3;
+    }
+
+    private void setTerrainCode(int id, int code) {
+        int shift = (id & 31) << 1;
+        int word = id >>> 5;
+        terrain[word] = (terrain[word] & ~(3L << shift)) | ((long) code << shift);
+    }
+
+    // Visited
+    public boolean isVisited(int id) { return get(visited, id); }
+    public void setVisited(int id, boolean value) { set(visited, id, value); }
+
+    // Concurrent carving. Several cells share one word of a plane, so threads
+    // carving different parts of the same maze must use these atomic
+    // versions; the plain setters can lose a neighbour's update.
+    public void openRightWallAtomic(int id) { clearAtomic(rightWalls, id); }
+    public void openBottomWallAtomic(int id) { clearAtomic(bottomWalls, id); }
+    public void setVisitedAtomic(int id) { setAtomic(visited, id); }
+
     public List<Position> getAccessibleNeighbors(Position pos) {
         List<Position> neighbors = new ArrayList<>();
         int row = pos.getRow();
         int col = pos.getCol();
-        Cell cell = grid[row][col];
 
-        if (!cell.hasTopWall() && row > 0) {
+        if (!hasTopWall(row, col) && row > 0) {
             neighbors.add(new Position(row - 1, col));
         }
-        if (!cell.hasRightWall() && col < cols - 1) {
+        if (!hasRightWall(row, col) && col < cols - 1) {
             neighbors.add(new Position(row, col + 1));
         }
-        if (!cell.hasBottomWall() && row < rows - 1) {
+        if (!hasBottomWall(row, col) && row < rows - 1) {
             neighbors.add(new Position(row + 1, col));
         }
-        if (!cell.hasLeftWall() && col > 0) {
+        if (!hasLeftWall(row, col) && col > 0) {
             neighbors.add(new Position(row, col - 1));
         }
 
         return neighbors;
     }
 
+    /**
+     * Writes the ids of the open neighbours of {@code id} into {@code out}
+     * (top, right, bottom, left order, same as getAccessibleNeighbors) and
+     * returns how many were written. {@code out} needs room for 4 ids.
+     */
+    public int getNeighborIds(int id, int[] out) {
+        int row = id / cols;
+        int col = id - row * cols;
+        int count = 0;
+
+        if (row > 0 && !get(bottomWalls, id - cols)) {
+            out[count++] = id - cols;
+        }
+        if (col < cols - 1 && !get(rightWalls, id)) {
+            out[count++] = id + 1;
+        }
+        if (row < rows - 1 && !get(bottomWalls, id)) {
+            out[count++] = id + cols;
+        }
+        if (col > 0 && !get(rightWalls, id - 1)) {
+            out[count++] = id - 1;
+        }
+        return count;
+    }
+
     public void reset() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                grid[i][j] = new Cell();
-                grid[i][j].setTerrain(TerrainType.getRandomTerrain());
+        initializeMaze();
+    }
+
+    /**
+     * 64-bit hash of the dimensions, walls and terrain. Two mazes with the
+     * same fingerprint are, for all practical purposes, the same maze.
+     */
+    public long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, rows);
+        hash = mix(hash, cols);
+        for (long[] plane : new long[][] {rightWalls, bottomWalls, topBorder, leftBorder, terrain}) {
+            for (long word : plane) {
+                hash = mix(hash, word);
             }
         }
-        grid[0][0].setTerrain(TerrainType.DEFAULT);
-        grid[rows - 1][cols - 1].setTerrain(TerrainType.DEFAULT);
+        return hash;
+    }
+
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            write(out);
+        }
+    }
+
+    public static Maze load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Writes walls, terrain, the visited flags and the terrain mix and seed
+     * (used by later resets). The fingerprint goes last so {@link #read} can
+     * tell a damaged file from a good one.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(rows);
+        out.writeInt(cols);
+        out.writeUTF(terrainMix.getName());
+        for (double p : terrainMix.getProbabilities()) {
+            out.writeDouble(p);
+        }
+        out.writeLong(terrainSeed);
+        out.writeInt(terrainRound);
+        for (long[] plane : new long[][] {rightWalls, bottomWalls, topBorder, leftBorder, terrain, visited}) {
+            for (long word : plane) {
+                out.writeLong(word);
+            }
+        }
+        out.writeLong(fingerprint());
+    }
+
+    public static Maze read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a maze file");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported maze version " + version);
+        }
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE / 4) {
+            throw new IOException("Bad maze size " + rows + "x" + cols);
+        }
+        String mixName = in.readUTF();
+        double[] probabilities = new double[TERRAINS.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = in.readDouble();
+        }
+        long terrainSeed = in.readLong();
+        int terrainRound = in.readInt();
+
+        Maze maze;
+        try {
+            maze = new Maze(rows, cols, terrainSeed, terrainRound, new TerrainMix(mixName, probabilities));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad terrain mix: " + e.getMessage());
+        }
+        int cells = rows * cols;
+        maze.rightWalls = readPlane(in, words(cells));
+        maze.bottomWalls = readPlane(in, words(cells));
+        maze.topBorder = readPlane(in, words(cols));
+        maze.leftBorder = readPlane(in, words(rows));
+        maze.terrain = readPlane(in, (cells + 31) >>> 5);
+        maze.visited = readPlane(in, words(cells));
+        if (in.readLong() != maze.fingerprint()) {
+            throw new IOException("Maze data is damaged");
+        }
+        return maze;
+    }
+
+    private static long[] readPlane(DataInput in, int words) throws IOException {
+        long[] plane = new long[words];
+        for (int i = 0; i < words; i++) {
+            plane[i] = in.readLong();
+        }
+        return plane;
+    }
+
+    // Seed for the given terrain draw; nearby inputs give unrelated seeds
+    private static long roundSeed(long seed, int round) {
+        long z = seed + (round + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static boolean get(long[] plane, int index) {
+        return (plane[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setAtomic(long[] plane, int index) {
+        PLANE_WORD.getAndBitwiseOr(plane, index >>> 6, 1L << index);
+    }
+
+    private static void clearAtomic(long[] plane, int index) {
+        PLANE_WORD.getAndBitwiseAnd(plane, index >>> 6, ~(1L << index));
+    }
+
+    private static void set(long[] plane, int index, boolean value) {
+        if (value) {
+            plane[index >>> 6] |= 1L << index;
+        } else {
+            plane[index >>> 6] &= ~(1L << index);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,269 @@
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Headless micro-benchmarks for maze generation, neighbour lookup and every
+ * solver, across maze sizes, terrain distributions and generators. Each
+ * benchmark is warmed up, then measured over several timed iterations; the
+ * report gives throughput, average time per operation, bytes allocated per
+ * operation and the allocation rate (from the JVM's per-thread allocation
+ * counter, when available).
+ *
+ * <pre>
+ * java MazeBenchmark --sizes 100,1000 --terrain default,uniform,heavy
+ * java MazeBenchmark --benchmarks solvers --sizes 4000 --iterations 3
+ * java MazeBenchmark --generators all --sizes 1000 --terrain uniform
+ * </pre>
+ *
+ * Solvers are measured with a null listener and with a listener that only
+ * counts events, which is the overhead floor for any UI attached to them.
+ * They run on a maze from each selected generator, since corridor shape
+ * and memory layout differ a lot between generators. Mazes are built from
+ * a {@link MazeSpec}, so every run measures bit-identical mazes; with
+ * {@code --cache} they are also loaded instead of generated again.
+ */
+public class MazeBenchmark {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: MazeBenchmark [options]",
+            "  --sizes N,M         square maze sizes (default 100,500,1000)",
+            "  --terrain A,B       default, uniform, heavy (default all)",
+            "  --benchmarks A,B    generate, neighbors, solvers (default all)",
+            "  --generators A,B    generator names or all (default Prim); Growing Tree:P",
+            "                      grows from the newest cell with probability P",
+            "  --solvers A,B       solver names (default all)",
+            "  --warmup N          warmup iterations (default 3)",
+            "  --iterations N      measured iterations (default 5)",
+            "  --time-ms T         minimum time per iteration (default 500)",
+            "  --seed S            seed for maze generation (default 42)",
+            "  --cache DIR         load solver mazes generated by earlier runs from DIR");
+
+    private int[] sizes = {100, 500, 1000};
+    private List<String> terrains = new ArrayList<>(TerrainMix.getPresetNames());
+    private List<String> benchmarks = Arrays.asList("generate", "neighbors", "solvers");
+    private String[] generators = {"Prim"};
+    private String[] solvers = MazeSolver.getAlgorithmNames();
+    private int warmup = 3;
+    private int iterations = 5;
+    private long minTimeNanos = 500_000_000L;
+    private long seed = 42;
+    private MazeCache cache;
+
+    // Results are folded in here so the JIT cannot drop the work
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        MazeBenchmark benchmark = new MazeBenchmark();
+        try {
+            benchmark.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        benchmark.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--sizes":
+                        sizes = Arrays.stream(value.split(",")).mapToInt(size -> positive(option, size)).toArray();
+                        for (int size : sizes) {
+                            if ((long) size * size > Integer.MAX_VALUE / 4) {
+                                throw new IllegalArgumentException("Maze too large: " + size + "x" + size);
+                            }
+                        }
+                        break;
+                    case "--terrain":
+                        terrains = Arrays.asList(value.split(","));
+                        for (String terrain : terrains) {
+                            if (TerrainMix.preset(terrain) == null) {
+                                throw new IllegalArgumentException("Unknown terrain mix: " + terrain);
+                            }
+                        }
+                        break;
+                    case "--benchmarks": benchmarks = Arrays.asList(value.split(",")); break;
+                    case "--generators":
+                        generators = value.equals("all") ? MazeGenerator.getAlgorithmNames() : value.split(",");
+                        for (String generator : generators) {
+                            if (!MazeGenerator.isAlgorithm(generator)) {
+                                throw new IllegalArgumentException("Unknown generator: " + generator);
+                            }
+                        }
+                        break;
+                    case "--solvers": solvers = value.split(","); break;
+                    case "--warmup": warmup = nonNegative(option, value); break;
+                    case "--iterations": iterations = positive(option, value); break;
+                    case "--time-ms": minTimeNanos = nonNegative(option, value) * 1_000_000L; break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--cache": cache = new MazeCache(0, new File(value)); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " expects a number: " + value);
+            }
+        }
+    }
+
+    private static int positive(String option, String value) {
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(option + " must be positive: " + value);
+        }
+        return parsed;
+    }
+
+    private static int nonNegative(String option, String value) {
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed < 0) {
+            throw new IllegalArgumentException(option + " must not be negative: " + value);
+        }
+        return parsed;
+    }
+
+    private void run() {
+        System.out.printf("%-24s %-17s %6s %-8s %-9s %12s %12s %14s %10s%n", "Benchmark", "Generator",
+                "Size", "Terrain", "Listener", "ops/s", "ms/op", "bytes/op", "MB/s");
+
+        for (int size : sizes) {
+            for (String terrain : terrains) {
+                for (String generator : generators) {
+                    runOn(size, terrain, generator);
+                }
+            }
+        }
+    }
+
+    private void runOn(int size, String terrain, String generator) {
+        Case at = new Case(generator, size, terrain);
+        MazeSpec spec = new MazeSpec(generator, size, size, seed, TerrainMix.preset(terrain));
+        if (benchmarks.contains("generate")) {
+            measure("generate", at, "-", () -> spec.build().getCellCount());
+        }
+
+        // Every run measures the same maze; the cache only saves generating it
+        Maze maze = cache == null ? spec.build() : cache.get(spec);
+
+        if (benchmarks.contains("neighbors")) {
+            measure("getAccessibleNeighbors", at, "-", () -> {
+                long total = 0;
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        total += maze.getAccessibleNeighbors(new Position(i, j)).size();
+                    }
+                }
+                return total;
+            });
+            int[] neighbors = new int[4];
+            measure("getNeighborIds", at, "-", () -> {
+                long total = 0;
+                for (int id = 0; id < maze.getCellCount(); id++) {
+                    total += maze.getNeighborIds(id, neighbors);
+                }
+                return total;
+            });
+        }
+
+        if (benchmarks.contains("solvers")) {
+            for (String algorithm : solvers) {
+                if (MazeSolver.create(algorithm, maze) == null) {
+                    System.err.println("Skipping unknown solver: " + algorithm);
+                    continue;
+                }
+                measure(algorithm, at, "null", () -> {
+                    MazeSolver solver = MazeSolver.create(algorithm, maze);
+                    solver.start(null);
+                    solver.runToEnd();
+                    return solver.getPathCost();
+                });
+                measure(algorithm, at, "counting", () -> {
+                    CountingListener listener = new CountingListener();
+                    MazeSolver.create(algorithm, maze).solve(listener);
+                    return listener.events;
+                });
+            }
+        }
+    }
+
+    private void measure(String name, Case at, String listener, Supplier<Number> operation) {
+        for (int i = 0; i < warmup; i++) {
+            iteration(operation);
+        }
+        long ops = 0;
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long[] result = iteration(operation);
+            ops += result[0];
+            nanos += result[1];
+            bytes += result[2];
+        }
+
+        double opsPerSecond = ops / (nanos / 1e9);
+        double msPerOp = nanos / 1e6 / ops;
+        String bytesPerOp = bytes < 0 ? "n/a" : String.format("%,d", bytes / ops);
+        String allocationRate = bytes < 0 ? "n/a" : String.format("%.1f", bytes / 1e6 / (nanos / 1e9));
+        System.out.printf("%-24s %-17s %6d %-8s %-9s %12.2f %12.3f %14s %10s%n", name, at.generator,
+                at.size, at.terrain, listener, opsPerSecond, msPerOp, bytesPerOp, allocationRate);
+    }
+
+    // Returns {operations, elapsed nanos, allocated bytes or -1}
+    private long[] iteration(Supplier<Number> operation) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long ops = 0;
+        long elapsed;
+        do {
+            sink += operation.get().longValue();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < minTimeNanos);
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return new long[] {ops, elapsed, allocated};
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    // The maze a row of the report was measured on
+    private static final class Case {
+        final String generator;
+        final int size;
+        final String terrain;
+
+        Case(String generator, int size, String terrain) {
+            this.generator = generator;
+            this.size = size;
+            this.terrain = terrain;
+        }
+    }
+
+    private static final class CountingListener implements MazeSolver.SolverEventListener {
+        long events;
+
+        @Override public void onCellEnqueued(int cell) { events++; }
+        @Override public void onCellDequeued(int cell) { events++; }
+        @Override public void onCellExpanded(int cell, int nodesExplored) { events++; }
+        @Override public void onSolutionFound(List<Position> path, int cost, int nodesExplored) { events++; }
+        @Override public void onNoSolution() { events++; }
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generated mazes keyed by their {@link MazeSpec}. Recently used mazes are
+ * kept in memory up to a total cell budget (least recently used go first),
+ * and, if a directory is given, every maze is also stored on disk under the
+ * SHA-256 of its spec key, so later runs can skip generation entirely.
+ *
+ * The disk cache is best effort: a missing, unreadable or damaged file is
+ * treated as a miss and the maze is generated again. Callers always get
+ * their own copy of a cached maze and may change it freely. Safe to use from
+ * several threads; two threads missing on the same spec both generate it.
+ */
+public class MazeCache {
+    private static final String SUFFIX = ".maze";
+
+    private final long maxCells;
+    private final File directory;
+
+    // Access-ordered, so iteration starts at the least recently used maze
+    private final LinkedHashMap<MazeSpec, Maze> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedCells;
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+
+    /** Memory-only cache holding mazes of up to {@code maxCells} cells in total. */
+    public MazeCache(long maxCells) {
+        this(maxCells, null);
+    }
+
+    /** Cache backed by {@code directory} (created if needed), or memory only if null. */
+    public MazeCache(long maxCells, File directory) {
+        this.maxCells = maxCells;
+        this.directory = directory;
+        if (directory != null) {
+            directory.mkdirs();
+        }
+    }
+
+    /**
+     * Returns a copy of the maze for {@code spec}, from memory, from disk or
+     * freshly generated. A generation cut short by an interrupt is returned
+     * as is but not cached.
+     */
+    public Maze get(MazeSpec spec) {
+        synchronized (this) {
+            Maze cached = memory.get(spec);
+            if (cached != null) {
+                memoryHits++;
+                return cached.copy();
+            }
+        }
+
+        Maze maze = directory == null ? null : readFromDisk(spec);
+        if (maze != null) {
+            synchronized (this) {
+                diskHits++;
+            }
+        } else {
+            maze = spec.build();
+            if (Thread.currentThread().isInterrupted()) {
+                return maze;
+            }
+            synchronized (this) {
+                misses++;
+            }
+            if (directory != null) {
+                writeToDisk(spec, maze);
+            }
+        }
+        remember(spec, maze);
+        return maze.copy();
+    }
+
+    public synchronized long getMemoryHits() { return memoryHits; }
+    public synchronized long getDiskHits() { return diskHits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized int size() { return memory.size(); }
+
+    /** Drops every maze held in memory; files on disk are kept. */
+    public synchronized void clear() {
+        memory.clear();
+        cachedCells = 0;
+    }
+
+    private synchronized void remember(MazeSpec spec, Maze maze) {
+        long cells = maze.getCellCount();
+        if (cells > maxCells) return;
+
+        Maze previous = memory.put(spec, maze);
+        cachedCells += cells - (previous == null ? 0 : previous.getCellCount());
+        Iterator<Map.Entry<MazeSpec, Maze>> eldest = memory.entrySet().iterator();
+        while (cachedCells > maxCells) {
+            Maze evicted = eldest.next().getValue();
+            eldest.remove();
+            cachedCells -= evicted.getCellCount();
+        }
+    }
+
+    private File fileFor(MazeSpec spec) {
+        return new File(directory, spec.hash() + SUFFIX);
+    }
+
+    private Maze readFromDisk(MazeSpec spec) {
+        File file = fileFor(spec);
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            // The key is stored too, in case two specs ever share a hash
+            if (!in.readUTF().equals(spec.key())) return null;
+            return Maze.read(in);
+        } catch (IOException e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    // Writes to a temporary file first, so readers never see half a maze
+    private void writeToDisk(MazeSpec spec, Maze maze) {
+        File target = fileFor(spec);
+        File temp = null;
+        try {
+            temp = File.createTempFile(target.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeUTF(spec.key());
+                maze.write(out);
+            }
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (temp != null) temp.delete();
+        }
+    }
+}
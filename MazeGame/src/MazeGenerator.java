@@ -1,113 +1,209 @@
 import java.util.*;
-
-public class MazeGenerator {
-    private Maze maze;
-    private Random random;
-
-    private static class Edge {
-        Position from;
-        Position to;
-        String wall;
-        String opposite;
-
-        Edge(Position from, Position to, String wall, String opposite) {
-            this.from = from;
-            this.to = to;
-            this.wall = wall;
-            this.opposite = opposite;
-        }
+import java.util.random.RandomGenerator;
+
+/**
+ * Base class for maze generation algorithms. A generator carves passages
+ * into a maze that still has all its walls (a fresh or reset {@link Maze}),
+ * reports every carved cell to a {@link MazeGenerationListener}, and opens
+ * the top of the first cell and the bottom of the last one as entrance and
+ * exit. Every generator produces a perfect maze: exactly one route between
+ * any two cells.
+ */
+public abstract class MazeGenerator {
+    private static final String[] ALGORITHMS = {"Prim", "Backtracker", "Kruskal", "Wilson",
+            "Growing Tree", "Sidewinder", "Binary Tree", "Eller", "Parallel Tiled"};
+
+    public static final String GROWING_TREE = "Growing Tree";
+    // Growing tree picks the newest active cell this often unless the name says otherwise
+    public static final double DEFAULT_NEWEST_PROBABILITY = 0.5;
+
+    // Directions are top, right, bottom, left, as in Maze.getNeighborIds
+    protected static final int[] ROW_STEP = {-1, 0, 1, 0};
+    protected static final int[] COL_STEP = {0, 1, 0, -1};
+
+    protected final Maze maze;
+    protected final RandomGenerator random;
+    protected final int rows;
+    protected final int cols;
+    protected MazeGenerationListener listener;
+
+    protected MazeGenerator(Maze maze, RandomGenerator random) {
+        this.maze = maze;
+        this.random = random;
+        this.rows = maze.getRows();
+        this.cols = maze.getCols();
     }
 
-    public MazeGenerator(Maze maze) {
-        this.maze = maze;
-        this.random = new Random();
+    /**
+     * Carves the whole maze, reporting progress to {@code listener} (which
+     * may be null). Stops without reporting completion if the thread is
+     * interrupted, leaving the maze half-carved.
+     */
+    public void generate(MazeGenerationListener listener) {
+        this.listener = listener;
+        if (!carveMaze()) return;
+        maze.setTopWall(0, 0, false);
+        maze.setBottomWall(rows - 1, cols - 1, false);
+        if (listener != null) {
+            listener.onGenerationComplete();
+        }
     }
 
-    public void generateWithPrim(MazeGenerationListener listener) {
-        int startRow = random.nextInt(maze.getRows());
-        int startCol = random.nextInt(maze.getCols());
+    /** Carves every passage; returns false if generation was cancelled. */
+    protected abstract boolean carveMaze();
 
-        Set<String> visited = new HashSet<>();
-        List<Edge> frontier = new ArrayList<>();
+    public static String[] getAlgorithmNames() {
+        return ALGORITHMS.clone();
+    }
 
-        Position start = new Position(startRow, startCol);
-        maze.getCell(startRow, startCol).setVisited(true);
-        visited.add(start.toString());
+    /**
+     * Name of the growing tree generator that grows from the newest active
+     * cell with probability {@code newestProbability}, e.g.
+     * {@code "Growing Tree:0.75"}. {@link #create} accepts these names too.
+     */
+    public static String growingTree(double newestProbability) {
+        return GROWING_TREE + ":" + newestProbability;
+    }
 
-        addFrontiers(start, frontier, visited);
+    /** True if {@link #create} knows {@code algorithm}. */
+    public static boolean isAlgorithm(String algorithm) {
+        return Arrays.asList(ALGORITHMS).contains(algorithm) || !Double.isNaN(newestProbability(algorithm));
+    }
 
-        if (listener != null) {
-            listener.onStepComplete(start, visited, frontier.size());
+    // Probability from a "Growing Tree:P" name, or NaN if the name is not one
+    private static double newestProbability(String algorithm) {
+        if (!algorithm.startsWith(GROWING_TREE + ":")) return Double.NaN;
+        try {
+            double p = Double.parseDouble(algorithm.substring(GROWING_TREE.length() + 1));
+            return p >= 0 && p <= 1 ? p : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
         }
+    }
 
-        while (!frontier.isEmpty()) {
-            int randomIndex = random.nextInt(frontier.size());
-            Edge edge = frontier.remove(randomIndex);
-
-            Position to = edge.to;
-            int toRow = to.getRow();
-            int toCol = to.getCol();
+    /**
+     * Creates the generator registered under {@code algorithm}, as listed by
+     * {@link #getAlgorithmNames()}, or a growing tree variant named by
+     * {@link #growingTree}. Returns null for an unknown name.
+     */
+    public static MazeGenerator create(String algorithm, Maze maze, RandomGenerator random) {
+        double newest = newestProbability(algorithm);
+        if (!Double.isNaN(newest)) {
+            return new GrowingTreeGenerator(maze, random, newest);
+        }
+        switch (algorithm) {
+            case "Prim": return new PrimGenerator(maze, random);
+            case "Backtracker": return new BacktrackerGenerator(maze, random);
+            case "Kruskal": return new KruskalGenerator(maze, random);
+            case "Wilson": return new WilsonGenerator(maze, random);
+            case GROWING_TREE: return new GrowingTreeGenerator(maze, random, DEFAULT_NEWEST_PROBABILITY);
+            case "Sidewinder": return new SidewinderGenerator(maze, random);
+            case "Binary Tree": return new BinaryTreeGenerator(maze, random);
+            case "Eller": return new EllerMazeGenerator(maze, random);
+            case "Parallel Tiled": return new TiledParallelGenerator(maze, random);
+            default: return null;
+        }
+    }
 
-            if (!maze.getCell(toRow, toCol).isVisited()) {
-                removeWall(edge.from, edge.to, edge.wall, edge.opposite);
-                maze.getCell(toRow, toCol).setVisited(true);
-                visited.add(to.toString());
+    /** True once the generating thread has been interrupted. */
+    protected static boolean isCancelled() {
+        return Thread.currentThread().isInterrupted();
+    }
 
-                addFrontiers(to, frontier, visited);
+    /** Id of the neighbour of {@code cell} in {@code direction}, or -1 at the border. */
+    protected int neighbor(int cell, int direction) {
+        int row = cell / cols + ROW_STEP[direction];
+        int col = cell % cols + COL_STEP[direction];
+        return row >= 0 && row < rows && col >= 0 && col < cols ? row * cols + col : -1;
+    }
 
-                if (listener != null) {
-                    listener.onStepComplete(to, visited, frontier.size());
-                }
-            }
+    /** Marks {@code cell} visited and reports it as the first cell of a new tree. */
+    protected void visit(int cell, int frontierSize) {
+        maze.setVisited(cell, true);
+        if (listener != null) {
+            listener.onCellCarved(-1, cell, frontierSize);
         }
+    }
 
-        maze.getCell(0, 0).setTopWall(false);
-        maze.getCell(maze.getRows() - 1, maze.getCols() - 1).setBottomWall(false);
-
+    /**
+     * Opens the wall between {@code cell} and its neighbour in
+     * {@code direction}, marks both visited and reports the neighbour as
+     * carved from {@code cell}. Returns the neighbour's id.
+     */
+    protected int carve(int cell, int direction, int frontierSize) {
+        int row = cell / cols;
+        int col = cell % cols;
+        switch (direction) {
+            case 0: maze.setTopWall(row, col, false); break;
+            case 1: maze.setRightWall(row, col, false); break;
+            case 2: maze.setBottomWall(row, col, false); break;
+            default: maze.setLeftWall(row, col, false); break;
+        }
+        int to = (row + ROW_STEP[direction]) * cols + col + COL_STEP[direction];
+        if (!maze.isVisited(cell)) {
+            visit(cell, frontierSize);
+        }
+        maze.setVisited(to, true);
         if (listener != null) {
-            listener.onGenerationComplete();
+            listener.onCellCarved(cell, to, frontierSize);
         }
+        return to;
     }
 
-    private void addFrontiers(Position pos, List<Edge> frontier, Set<String> visited) {
-        int[][] directions = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}};
-        String[] walls = {"top", "right", "bottom", "left"};
-        String[] opposites = {"bottom", "left", "top", "right"};
+    /**
+     * Wraps a batch listener so carve events are delivered in groups of
+     * {@code batchSize} instead of one call per cell.
+     */
+    public static MazeGenerationListener batched(int batchSize, CarveBatchListener listener) {
+        return new BatchingListener(batchSize, listener);
+    }
 
-        for (int i = 0; i < directions.length; i++) {
-            int newRow = pos.getRow() + directions[i][0];
-            int newCol = pos.getCol() + directions[i][1];
+    /**
+     * Per-step generation events. {@code fromCell} is the already visited
+     * cell the passage was carved from, or -1 for the first cell; both are
+     * cell ids ({@code row * cols + col}).
+     */
+    public interface MazeGenerationListener {
+        void onCellCarved(int fromCell, int toCell, int frontierSize);
+        void onGenerationComplete();
+    }
 
-            if (maze.isValidPosition(newRow, newCol)) {
-                Position neighbor = new Position(newRow, newCol);
-                if (!visited.contains(neighbor.toString())) {
-                    frontier.add(new Edge(pos, neighbor, walls[i], opposites[i]));
-                }
-            }
-        }
+    public interface CarveBatchListener {
+        /** {@code edges} holds {@code count} (from, to) pairs back to back. */
+        void onCellsCarved(int[] edges, int count);
+        void onGenerationComplete();
     }
 
-    private void removeWall(Position from, Position to, String wall, String opposite) {
-        Cell fromCell = maze.getCell(from.getRow(), from.getCol());
-        Cell toCell = maze.getCell(to.getRow(), to.getCol());
+    private static class BatchingListener implements MazeGenerationListener {
+        private final CarveBatchListener listener;
+        private final int[] edges;
+        private int count;
 
-        switch (wall) {
-            case "top": fromCell.setTopWall(false); break;
-            case "right": fromCell.setRightWall(false); break;
-            case "bottom": fromCell.setBottomWall(false); break;
-            case "left": fromCell.setLeftWall(false); break;
+        BatchingListener(int batchSize, CarveBatchListener listener) {
+            this.listener = listener;
+            this.edges = new int[Math.max(1, batchSize) * 2];
         }
 
-        switch (opposite) {
-            case "top": toCell.setTopWall(false); break;
-            case "right": toCell.setRightWall(false); break;
-            case "bottom": toCell.setBottomWall(false); break;
-            case "left": toCell.setLeftWall(false); break;
+        @Override
+        public void onCellCarved(int fromCell, int toCell, int frontierSize) {
+            edges[count * 2] = fromCell;
+            edges[count * 2 + 1] = toCell;
+            if (++count * 2 == edges.length) {
+                flush();
+            }
         }
-    }
 
-    public interface MazeGenerationListener {
-        void onStepComplete(Position current, Set<String> visited, int frontierSize);
-        void onGenerationComplete();
+        @Override
+        public void onGenerationComplete() {
+            flush();
+            listener.onGenerationComplete();
+        }
+
+        private void flush() {
+            if (count > 0) {
+                listener.onCellsCarved(edges, count);
+                count = 0;
+            }
+        }
     }
 }
\ No newline at end of file
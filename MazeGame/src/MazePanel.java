@@ -1,75 +1,353 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class MazePanel extends JPanel {
-    private static final int ROWS = 15;
-    private static final int COLS = 20;
-    private static final int CELL_SIZE = 30;
+    private static final int DEFAULT_ROWS = 15;
+    private static final int DEFAULT_COLS = 20;
+    private static final int DEFAULT_CELL_SIZE = 30;
+    public static final int MIN_CELL_SIZE = 1;
+    public static final int MAX_CELL_SIZE = 60;
+    // Below this size cells are drawn as flat colour blocks from an int raster
+    private static final int LOD_CELL_SIZE = 4;
+    private static final int WEIGHT_LABEL_MIN_SIZE = 20;
+    // Largest wall/terrain cache kept as one image; beyond it the visible cells are drawn directly
+    private static final long MAX_STATIC_LAYER_PIXELS = 4096L * 4096L;
+    private static final int OFFSET_X = 50;
+    private static final int OFFSET_Y = 50;
+    // How often the EDT picks up frames published by the worker thread
+    private static final int FRAME_INTERVAL_MS = 16;
+    private static final int MAX_CELL_REPAINTS = 256;
+
+    static final Color PATH_COLOR = new Color(251, 191, 36);
+    static final Color CURRENT_COLOR = new Color(139, 92, 246);
+    static final Color EXPLORED_COLOR = new Color(252, 165, 165);
+    static final Color QUEUE_COLOR = new Color(196, 181, 253);
+    private static final Color GENERATING_COLOR = new Color(16, 185, 129);
+    static final Color GEN_VISITED_COLOR = new Color(224, 242, 254);
+    private static final Color WEIGHT_COLOR = new Color(51, 65, 85);
+    static final Color WALL_COLOR = new Color(30, 41, 59);
+    private static final Color START_COLOR = new Color(34, 197, 94);
+    private static final Color END_COLOR = new Color(239, 68, 68);
+    private static final Font WEIGHT_FONT = new Font("Arial", Font.BOLD, 10);
+    private static final Font MARKER_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 11);
+    private static final Font LEGEND_TEXT_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font LEGEND_SMALL_FONT = new Font("Arial", Font.PLAIN, 10);
+    private static final BasicStroke WALL_STROKE = new BasicStroke(2);
+    private static final BasicStroke THIN_WALL_STROKE = new BasicStroke(1);
+
+    private int rows = DEFAULT_ROWS;
+    private int cols = DEFAULT_COLS;
+    private int cellSize = DEFAULT_CELL_SIZE;
 
     private Maze maze;
-    private MazeGenerator generator;
+    // What the current maze was generated from; null before the first generation
+    private MazeSpec mazeSpec;
     private SoundManager soundManager;
-
-    private Position currentStep;
-    private Set<String> visitedDuringGeneration;
-    private Set<Position> exploredCells;
-    private List<Position> finalPath;
-    private List<Position> queueState;
+    private final MazeTaskScheduler scheduler = new MazeTaskScheduler();
+
+    // Everything below is owned by the EDT. Worker threads only write to
+    // their FrameChannel; pollFrames() applies what they published.
+    private OverlayGrid overlay;
+    private FrameChannel frames;
+    private ProgressFrame lastFrame;
+    private MazeTask currentTask;
+    private MazeSolver activeSolver;
+    private FramePacer activePacer;
+    // Read by the worker between steps
+    private volatile boolean solvePaused;
+    // Recording of the last solve, replayed into the overlay when scrubbing
+    private SolverTrace trace;
+    private SolverTrace.Player tracePlayer;
+    // Step to show once the player being built is ready, or -1 if none is being built
+    private int pendingTraceStep = -1;
     private int pathCost;
+    private int pathLength;
     private int nodesExplored;
 
     private boolean isGenerating;
+    // Set while a generate task builds its maze; frames wait until it is installed
+    private boolean awaitingMaze;
     private boolean isSolving;
     private int lastStepSoundTime;
 
+    // Walls, terrain and weight labels, rebuilt only when the maze changes.
+    // Cells carved during generation are queued here and patched before the next paint.
+    private BufferedImage staticLayer;
+    private boolean staticLayerValid;
+    private int[] dirtyStaticCells = new int[64];
+    private int dirtyStaticCount;
+
+    // Level-of-detail raster, one pixel per visible cell, scaled up when drawn
+    private BufferedImage lodRaster;
+    private int[] lodPixels;
+
     public MazePanel() {
-        maze = new Maze(ROWS, COLS);
-        generator = new MazeGenerator(maze);
+        maze = new Maze(rows, cols);
         soundManager = new SoundManager(); // Initialize sound manager
 
-        visitedDuringGeneration = new HashSet<>();
-        exploredCells = new HashSet<>();
-        finalPath = new ArrayList<>();
-        queueState = new ArrayList<>();
+        overlay = new OverlayGrid(maze);
+        startRun(ProgressFrame.IDLE);
 
-        setPreferredSize(new Dimension(
-                COLS * CELL_SIZE + 200,
-                ROWS * CELL_SIZE + 100
-        ));
+        updatePreferredSize();
         setBackground(new Color(15, 23, 42));
+        installViewControls();
 
         lastStepSoundTime = 0;
+
+        new javax.swing.Timer(FRAME_INTERVAL_MS, e -> pollFrames()).start();
+    }
+
+    private FrameChannel startRun(int phase) {
+        trace = null;
+        tracePlayer = null;
+        pendingTraceStep = -1;
+        frames = new FrameChannel(phase);
+        lastFrame = frames.takeHead();
+        return frames;
+    }
+
+    /**
+     * Applies every frame the current worker has published since the last
+     * call and schedules repaints for the cells they touched. EDT only.
+     */
+    private void pollFrames() {
+        if (awaitingMaze) return;
+        ProgressFrame frame = lastFrame;
+        ProgressFrame next;
+        while ((next = frame.getNext()) != null) {
+            frame = next;
+            // Turbo frames can carry thousands of cells; one full repaint is
+            // cheaper than queueing a dirty rectangle per cell.
+            boolean perCell = frame.getEventCount() <= MAX_CELL_REPAINTS;
+            if (!perCell) repaint();
+            for (int i = 0; i < frame.getEventCount(); i++) {
+                int event = frame.getEvent(i);
+                int cell = frame.getEventCell(i);
+                if (perCell) repaintCell(overlay.getCurrent());
+                overlay.apply(event, cell);
+                if (perCell) repaintCell(cell);
+                if ((event == OverlayGrid.CARVE || event == OverlayGrid.WALL_OPENED)
+                        && staticLayerValid && useStaticLayer()) {
+                    if (dirtyStaticCount == dirtyStaticCells.length) {
+                        dirtyStaticCells = Arrays.copyOf(dirtyStaticCells, dirtyStaticCount * 2);
+                    }
+                    dirtyStaticCells[dirtyStaticCount++] = cell;
+                }
+                if (event == OverlayGrid.CLEAR_SOLVER) {
+                    repaint();
+                }
+                if (event == OverlayGrid.FINISH_GENERATION) {
+                    // Not every generator reports its cells (the parallel one
+                    // only reports completion), so redraw all walls once
+                    staticLayerValid = false;
+                    dirtyStaticCount = 0;
+                }
+            }
+            nodesExplored = frame.getNodesExplored();
+            pathCost = frame.getPathCost();
+            pathLength = frame.getPathLength();
+            isGenerating = frame.getPhase() == ProgressFrame.GENERATING;
+            isSolving = frame.getPhase() == ProgressFrame.SOLVING;
+            if (frame.getPhase() == ProgressFrame.IDLE) {
+                repaint();
+            }
+        }
+        if (frame != lastFrame) {
+            lastFrame = frame;
+            frames.markConsumed(frame);
+        }
+    }
+
+    private void updatePreferredSize() {
+        setPreferredSize(new Dimension(
+                cols * cellSize + 200,
+                rows * cellSize + 100
+        ));
+        revalidate();
+    }
+
+    // Drag to pan, Ctrl + wheel to zoom around the pointer
+    private void installViewControls() {
+        MouseAdapter viewControls = new MouseAdapter() {
+            private Point dragOrigin;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragOrigin = e.getLocationOnScreen();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                JViewport viewport = getViewport();
+                if (viewport == null || dragOrigin == null) return;
+                Point now = e.getLocationOnScreen();
+                Point view = viewport.getViewPosition();
+                view.translate(dragOrigin.x - now.x, dragOrigin.y - now.y);
+                dragOrigin = now;
+                scrollTo(viewport, view);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown()) {
+                    int step = Math.max(1, cellSize / 5);
+                    zoom(cellSize - e.getWheelRotation() * step, e.getPoint());
+                } else {
+                    // Let the scroll pane handle plain scrolling
+                    Container scrollPane = SwingUtilities.getAncestorOfClass(JScrollPane.class, MazePanel.this);
+                    if (scrollPane != null) {
+                        scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(MazePanel.this, e, scrollPane));
+                    }
+                }
+            }
+        };
+        addMouseListener(viewControls);
+        addMouseMotionListener(viewControls);
+        addMouseWheelListener(viewControls);
+    }
+
+    private JViewport getViewport() {
+        return (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+    }
+
+    private void scrollTo(JViewport viewport, Point view) {
+        Dimension extent = viewport.getExtentSize();
+        Dimension size = getPreferredSize();
+        view.x = Math.max(0, Math.min(view.x, size.width - extent.width));
+        view.y = Math.max(0, Math.min(view.y, size.height - extent.height));
+        viewport.setViewPosition(view);
+    }
+
+    public int getMazeRows() { return rows; }
+    public int getMazeCols() { return cols; }
+    public int getCellSize() { return cellSize; }
+
+    public void setCellSize(int size) {
+        zoom(size, null);
+    }
+
+    private void zoom(int size, Point anchor) {
+        size = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+        if (size == cellSize) return;
+
+        JViewport viewport = getViewport();
+        Rectangle view = viewport != null ? viewport.getViewRect() : new Rectangle();
+        if (anchor == null) {
+            anchor = new Point(view.x + view.width / 2, view.y + view.height / 2);
+        }
+        // Keep the maze point under the anchor in place
+        double mazeX = (anchor.x - OFFSET_X) / (double) cellSize;
+        double mazeY = (anchor.y - OFFSET_Y) / (double) cellSize;
+
+        cellSize = size;
+        staticLayerValid = false;
+        updatePreferredSize();
+
+        if (viewport != null) {
+            viewport.setViewSize(getPreferredSize());
+            int x = (int) Math.round(OFFSET_X + mazeX * size) - (anchor.x - view.x);
+            int y = (int) Math.round(OFFSET_Y + mazeY * size) - (anchor.y - view.y);
+            scrollTo(viewport, new Point(x, y));
+        }
+        repaint();
+    }
+
+    /** Replaces the maze with an empty one of the given size. Ignored while busy. */
+    public boolean setMazeSize(int newRows, int newCols) {
+        if (isGenerating || isSolving) return false;
+        if (newRows == rows && newCols == cols) return true;
+
+        installMaze(new Maze(newRows, newCols), null);
+        return true;
+    }
+
+    // Shows maze (of any size) with a fresh overlay and no solve state
+    private void installMaze(Maze newMaze, OverlayGrid newOverlay) {
+        maze = newMaze;
+        overlay = newOverlay != null ? newOverlay : new OverlayGrid(newMaze);
+        mazeSpec = null;
+        pathCost = 0;
+        pathLength = 0;
+        nodesExplored = 0;
+        staticLayer = null;
+        staticLayerValid = false;
+        dirtyStaticCount = 0;
+        trace = null;
+        tracePlayer = null;
+        pendingTraceStep = -1;
+
+        if (newMaze.getRows() != rows || newMaze.getCols() != cols) {
+            rows = newMaze.getRows();
+            cols = newMaze.getCols();
+            updatePreferredSize();
+        }
+        repaint();
     }
 
     public void setSoundManager(SoundManager soundManager) {
         this.soundManager = soundManager;
     }
 
-    public void generateMaze(int speed) {
+    public void generateMaze(String algorithm, int speed) {
+        generateMaze(algorithm, FramePacer.delay(speed));
+    }
+
+    /** Generates a maze from a fresh random seed; see {@link #getMazeSpec()}. */
+    public void generateMaze(String algorithm, FramePacer pacer) {
+        if (!MazeGenerator.isAlgorithm(algorithm)) return;
+        generateMaze(new MazeSpec(algorithm, rows, cols, ThreadLocalRandom.current().nextLong(),
+                TerrainMix.DEFAULT), pacer);
+    }
+
+    /**
+     * Generates exactly the maze described by {@code spec}, resizing if
+     * needed. The maze and its overlay are allocated by the worker; the
+     * panel switches to them before applying any of the run's frames.
+     */
+    public void generateMaze(MazeSpec spec, FramePacer pacer) {
         if (isGenerating || isSolving) return;
 
         isGenerating = true;
-        maze.reset();
-        visitedDuringGeneration.clear();
-        exploredCells.clear();
-        finalPath.clear();
-        queueState.clear();
-        pathCost = 0;
-        nodesExplored = 0;
+        awaitingMaze = true;
+        FrameChannel channel = startRun(ProgressFrame.GENERATING);
 
         // Play start sound
         soundManager.playSound("button_click");
 
-        Thread generatorThread = new Thread(() -> {
-            generator.generateWithPrim(new MazeGenerator.MazeGenerationListener() {
+        long cellCount = (long) spec.getRows() * spec.getCols();
+        currentTask = scheduler.submit("generate", task -> {
+            Maze newMaze = spec.createMaze();
+            OverlayGrid newOverlay = new OverlayGrid(newMaze);
+            MazeGenerator runGenerator = spec.createGenerator(newMaze);
+            SwingUtilities.invokeLater(() -> {
+                // Reset or another run may have replaced this one meanwhile
+                if (frames != channel) return;
+                installMaze(newMaze, newOverlay);
+                mazeSpec = spec;
+                awaitingMaze = false;
+            });
+            runGenerator.generate(new MazeGenerator.MazeGenerationListener() {
                 private long lastSoundTime = 0;
+                private int carved = 0;
 
                 @Override
-                public void onStepComplete(Position current, Set<String> visited, int frontierSize) {
-                    currentStep = current;
-                    visitedDuringGeneration = new HashSet<>(visited);
+                public void onCellCarved(int fromCell, int toCell, int frontierSize) {
+                    if (fromCell >= 0) {
+                        channel.record(OverlayGrid.WALL_OPENED, fromCell);
+                    }
+                    channel.record(OverlayGrid.CARVE, toCell);
+                    task.setProgress(++carved, cellCount);
 
                     // Play step sound with cooldown to avoid overwhelming
                     long currentTime = System.currentTimeMillis();
@@ -78,115 +356,264 @@ public class MazePanel extends JPanel {
                         lastSoundTime = currentTime;
                     }
 
-                    repaint();
-                    try {
-                        Thread.sleep(speed);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
+                    if (pacer.endStep()) {
+                        channel.publish(ProgressFrame.GENERATING, 0, 0, 0);
+                        pacer.awaitNextFrame();
                     }
                 }
 
                 @Override
                 public void onGenerationComplete() {
-                    currentStep = null;
-                    isGenerating = false;
+                    channel.record(OverlayGrid.FINISH_GENERATION, -1);
+                    channel.publishNow(ProgressFrame.IDLE, 0, 0, 0);
                     // Play completion sound
                     soundManager.playSound("maze_generated");
-                    repaint();
                 }
             });
+        }, error -> {
+            // If the maze was never built the install above was not queued
+            SwingUtilities.invokeLater(() -> {
+                if (frames == channel) awaitingMaze = false;
+            });
+            channel.record(OverlayGrid.FINISH_GENERATION, -1);
+            channel.publishNow(ProgressFrame.IDLE, 0, 0, 0);
+            reportFailure("Maze generation failed", error);
         });
-        generatorThread.start();
     }
 
     public void solveMaze(String algorithm, int speed) {
+        solveMaze(algorithm, FramePacer.delay(speed));
+    }
+
+    public void solveMaze(String algorithm, FramePacer pacer) {
         if (isGenerating || isSolving) return;
 
+        MazeSolver solver = MazeSolver.create(algorithm, maze);
+        if (solver == null) return;
+
         isSolving = true;
-        exploredCells.clear();
-        finalPath.clear();
-        queueState.clear();
+        solvePaused = false;
         pathCost = 0;
+        pathLength = 0;
         nodesExplored = 0;
+        FrameChannel channel = startRun(ProgressFrame.SOLVING);
+        repaint();
 
         // Play start sound
         soundManager.playSound("button_click");
 
-        MazeSolver solver;
-        switch (algorithm) {
-            case "BFS": solver = new BFSSolver(maze); break;
-            case "DFS": solver = new DFSSolver(maze); break;
-            case "Dijkstra": solver = new DijkstraSolver(maze); break;
-            case "A*": solver = new AStarSolver(maze); break;
-            default: return;
-        }
+        Maze solveMaze = maze;
+        int soundCooldown = pacer.isTurbo() ? 30 : Math.max(30, pacer.getDelayMillis() / 2);
+        MazeSolver.SolverEventListener listener = new MazeSolver.SolverEventListener() {
+            private long lastSoundTime = 0;
 
-        Thread solverThread = new Thread(() -> {
-            final long[] lastSoundTime = {0};
+            @Override
+            public void onCellEnqueued(int cell) {
+                channel.record(OverlayGrid.ENQUEUE, cell);
+            }
 
-            solver.solve(new MazeSolver.SolverListener() {
-                @Override
-                public void onStepComplete(Position current, Set<Position> explored,
-                                           List<Position> queue, int nodes) {
-                    currentStep = current;
-                    exploredCells = new HashSet<>(explored);
-                    queueState = new ArrayList<>(queue);
-                    nodesExplored = nodes;
-
-                    // Play step sound with cooldown
-                    long currentTime = System.currentTimeMillis();
-                    if (currentTime - lastSoundTime[0] > Math.max(30, speed/2)) {
-                        soundManager.playSound("step");
-                        lastSoundTime[0] = currentTime;
-                    }
+            @Override
+            public void onCellDequeued(int cell) {
+                channel.record(OverlayGrid.DEQUEUE, cell);
+            }
 
-                    repaint();
-                    try {
-                        Thread.sleep(speed);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }
+            @Override
+            public void onCellExpanded(int cell, int nodes) {
+                channel.record(OverlayGrid.EXPAND, cell);
 
-                @Override
-                public void onSolutionFound(List<Position> path, int cost, int nodes) {
-                    finalPath = new ArrayList<>(path);
-                    pathCost = cost;
-                    nodesExplored = nodes;
-                    currentStep = null;
-                    isSolving = false;
-
-                    // Play success sound
-                    soundManager.playSound("solution_found");
-                    repaint();
+                // Play step sound with cooldown
+                long currentTime = System.currentTimeMillis();
+                if (currentTime - lastSoundTime > soundCooldown) {
+                    soundManager.playSound("step");
+                    lastSoundTime = currentTime;
                 }
+            }
 
-                @Override
-                public void onNoSolution() {
-                    currentStep = null;
-                    isSolving = false;
-                    // Play error sound
-                    soundManager.playSound("error");
-                    JOptionPane.showMessageDialog(MazePanel.this,
-                            "No solution found!", "Info", JOptionPane.INFORMATION_MESSAGE);
-                    repaint();
+            @Override
+            public void onSolutionFound(List<Position> path, int cost, int nodes) {
+                channel.record(OverlayGrid.FINISH_SEARCH, -1);
+                for (Position pos : path) {
+                    channel.record(OverlayGrid.MARK_PATH, solveMaze.cellId(pos.getRow(), pos.getCol()));
                 }
+                channel.publishNow(ProgressFrame.IDLE, nodes, cost, path.size());
+
+                // Play success sound
+                soundManager.playSound("solution_found");
+            }
+
+            @Override
+            public void onNoSolution() {
+                channel.record(OverlayGrid.FINISH_SEARCH, -1);
+                channel.publishNow(ProgressFrame.IDLE, solver.getNodesExplored(), 0, 0);
+                // Play error sound
+                soundManager.playSound("error");
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(MazePanel.this,
+                        "No solution found!", "Info", JOptionPane.INFORMATION_MESSAGE));
+            }
+        };
+
+        activeSolver = solver;
+        activePacer = pacer;
+        // Starting a solver allocates its per-cell arrays (and builds the
+        // junction graph), and the trace fingerprints the maze; both scan
+        // every cell, so they run in the first task rather than on the EDT
+        continueSolve(false, () -> {
+            // Applied by the EDT with the first frame, before any search event
+            channel.record(OverlayGrid.CLEAR_SOLVER, -1);
+            SolverTrace runTrace = new SolverTrace(solveMaze, algorithm);
+            SwingUtilities.invokeLater(() -> {
+                if (frames == channel) trace = runTrace;
             });
+            solver.start(runTrace.recordTo(listener));
         });
-        solverThread.start();
     }
 
-    public void reset() {
+    /**
+     * Runs the active solver on the scheduler until it finishes, is paused,
+     * or (for a single step) has expanded one cell. While paused no thread is
+     * held; resuming submits a new task that picks up the solver's state.
+     * {@code setup}, if given, runs first on the worker.
+     */
+    private void continueSolve(boolean singleStep, Runnable setup) {
+        MazeSolver solver = activeSolver;
+        FramePacer pacer = activePacer;
+        FrameChannel channel = frames;
+        int cellCount = maze.getCellCount();
+        currentTask = scheduler.submit("solve", task -> {
+            if (setup != null) setup.run();
+            while (solver.step()) {
+                task.setProgress(solver.getNodesExplored(), cellCount);
+                if (singleStep || solvePaused) {
+                    channel.publishNow(ProgressFrame.SOLVING, solver.getNodesExplored(), 0, 0);
+                    return;
+                }
+                if (pacer.endStep()) {
+                    channel.publish(ProgressFrame.SOLVING, solver.getNodesExplored(), 0, 0);
+                    pacer.awaitNextFrame();
+                }
+            }
+        }, error -> {
+            channel.record(OverlayGrid.FINISH_SEARCH, -1);
+            channel.publishNow(ProgressFrame.IDLE, solver.getNodesExplored(), 0, 0);
+            reportFailure("Solving failed", error);
+        });
+    }
+
+    // Called on the worker thread after the task has put the panel back to idle
+    private void reportFailure(String message, Throwable error) {
+        soundManager.playSound("error");
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(MazePanel.this,
+                message + ": " + error, "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /** Last step of the recorded solve, or -1 if there is nothing to replay. */
+    public int getTraceSteps() {
+        return trace != null && trace.isFinished() && !isSolving ? trace.getStepCount() : -1;
+    }
+
+    /** Shows the overlay as it was after {@code step} expansions of the recorded solve. */
+    public void seekTrace(int step) {
+        if (getTraceSteps() < 0) return;
+        if (tracePlayer == null) {
+            // The player replays the whole trace when built; until it is
+            // ready, only the latest requested step is remembered
+            if (pendingTraceStep < 0) buildTracePlayer();
+            pendingTraceStep = step;
+            return;
+        }
+        tracePlayer.seek(step);
+        repaint();
+    }
+
+    // Builds the player on a worker, into its own overlay that replaces the
+    // panel's once ready (both hold the final state of the solve by then)
+    private void buildTracePlayer() {
+        SolverTrace source = trace;
+        Maze traceMaze = maze;
+        scheduler.submit("trace", task -> {
+            OverlayGrid grid = new OverlayGrid(traceMaze);
+            grid.clearSolverState();
+            SolverTrace.Player player = new SolverTrace.Player(source, grid);
+            SwingUtilities.invokeLater(() -> {
+                // A new solve, load or maze may have replaced the trace meanwhile
+                if (trace != source || maze != traceMaze || pendingTraceStep < 0) return;
+                overlay = grid;
+                tracePlayer = player;
+                player.seek(pendingTraceStep);
+                pendingTraceStep = -1;
+                repaint();
+            });
+        }, error -> SwingUtilities.invokeLater(() -> {
+            if (trace == source) pendingTraceStep = -1;
+        }));
+    }
+
+    public void saveTrace(File file) throws IOException {
+        if (getTraceSteps() < 0) {
+            throw new IOException("There is no finished solve to save");
+        }
+        trace.save(file);
+    }
+
+    /** Loads a trace recorded on the current maze and shows its final state. */
+    public void loadTrace(File file) throws IOException {
         if (isGenerating || isSolving) return;
+        SolverTrace loaded = SolverTrace.load(file);
+        if (!loaded.matches(maze)) {
+            throw new IOException("The trace was recorded on a different maze");
+        }
+        trace = loaded;
+        tracePlayer = null;
+        pendingTraceStep = -1;
+        pathCost = loaded.getPathCost();
+        pathLength = loaded.getPathLength();
+        nodesExplored = loaded.getNodesExplored();
+        seekTrace(loaded.getStepCount());
+    }
+
+    public boolean isSolvePaused() { return isSolving && solvePaused; }
+
+    public void pauseSolve() {
+        if (isSolving) solvePaused = true;
+    }
+
+    public void resumeSolve() {
+        if (!isSolving || !solvePaused || !currentTask.isDone()) return;
+        solvePaused = false;
+        continueSolve(false, null);
+    }
 
-        maze.reset();
-        visitedDuringGeneration.clear();
-        exploredCells.clear();
-        finalPath.clear();
-        queueState.clear();
-        currentStep = null;
+    /** Expands a single cell of a paused solve. */
+    public void stepSolve() {
+        if (!isSolving || !solvePaused || !currentTask.isDone()) return;
+        continueSolve(true, null);
+    }
+
+    public void reset() {
+        if (currentTask != null && !currentTask.isDone()) {
+            // The cancelled worker may still finish its current step, so
+            // give it nothing shared to write to.
+            currentTask.cancel(true);
+            maze = new Maze(rows, cols);
+            overlay = new OverlayGrid(maze);
+            staticLayer = null;
+            dirtyStaticCount = 0;
+        } else {
+            maze.reset();
+        }
+        mazeSpec = null;
+        awaitingMaze = false;
+        currentTask = null;
+        activeSolver = null;
+        solvePaused = false;
+        isGenerating = false;
+        isSolving = false;
+        staticLayerValid = false;
+        overlay.clear();
         pathCost = 0;
+        pathLength = 0;
         nodesExplored = 0;
+        startRun(ProgressFrame.IDLE);
 
         // Play reset sound
         soundManager.playSound("reset");
@@ -198,8 +625,120 @@ public class MazePanel extends JPanel {
     public boolean isSolving() { return isSolving; }
     public int getPathCost() { return pathCost; }
     public int getNodesExplored() { return nodesExplored; }
-    public int getQueueSize() { return queueState.size(); }
-    public int getPathLength() { return finalPath.size(); }
+    public int getQueueSize() { return overlay.getQueuedCount(); }
+    public int getPathLength() { return pathLength; }
+
+    /** Spec the current maze was generated from, or null if it was not. */
+    public MazeSpec getMazeSpec() { return mazeSpec; }
+
+    /** Copy of the current maze, safe to hand to other threads. */
+    public Maze snapshotMaze() {
+        return maze.copy();
+    }
+
+    /** Progress of the running generate/solve task in [0, 1], or 0 when idle. */
+    public double getTaskProgress() {
+        MazeTask task = currentTask;
+        return task == null || task.isDone() ? 0 : task.getProgress();
+    }
+
+    private Rectangle cellBounds(int row, int col) {
+        // Walls are drawn with a 2px stroke centred on the cell border
+        return new Rectangle(OFFSET_X + col * cellSize - 2, OFFSET_Y + row * cellSize - 2,
+                cellSize + 4, cellSize + 4);
+    }
+
+    private boolean useStaticLayer() {
+        return cellSize >= LOD_CELL_SIZE
+                && (long) (cols * cellSize + 2) * (rows * cellSize + 2) <= MAX_STATIC_LAYER_PIXELS;
+    }
+
+    private void repaintCell(int cell) {
+        if (cell >= 0) {
+            repaint(cellBounds(maze.rowOf(cell), maze.colOf(cell)));
+        }
+    }
+
+    private void updateStaticLayer() {
+        int width = cols * cellSize + 2;
+        int height = rows * cellSize + 2;
+        if (staticLayer == null || staticLayer.getWidth() != width || staticLayer.getHeight() != height) {
+            staticLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            staticLayerValid = false;
+        }
+
+        Graphics2D g2d = staticLayer.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // Image origin sits one pixel up/left of the first cell so the outer walls fit
+        g2d.translate(1, 1);
+
+        if (!staticLayerValid) {
+            dirtyStaticCount = 0;
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(-1, -1, width, height);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            drawStaticCells(g2d, 0, rows - 1, 0, cols - 1);
+            staticLayerValid = true;
+        } else {
+            for (int i = 0; i < dirtyStaticCount; i++) {
+                int cell = dirtyStaticCells[i];
+                int row = maze.rowOf(cell);
+                int col = maze.colOf(cell);
+                // Redraw the neighbourhood clipped to this cell so shared wall pixels stay intact
+                g2d.setClip(col * cellSize - 1, row * cellSize - 1, cellSize + 2, cellSize + 2);
+                drawStaticCells(g2d, Math.max(0, row - 1), Math.min(rows - 1, row + 1),
+                        Math.max(0, col - 1), Math.min(cols - 1, col + 1));
+            }
+            dirtyStaticCount = 0;
+        }
+        g2d.dispose();
+    }
+
+    private void drawStaticCells(Graphics2D g2d, int fromRow, int toRow, int fromCol, int toCol) {
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                g2d.setColor(maze.getTerrain(i, j).getColor());
+                g2d.fillRect(j * cellSize, i * cellSize, cellSize, cellSize);
+                drawWeight(g2d, i, j, j * cellSize, i * cellSize);
+            }
+        }
+
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                drawWalls(g2d, i, j, j * cellSize, i * cellSize);
+            }
+        }
+    }
+
+    private void drawWalls(Graphics2D g2d, int row, int col, int x, int y) {
+        g2d.setColor(WALL_COLOR);
+        g2d.setStroke(cellSize >= 8 ? WALL_STROKE : THIN_WALL_STROKE);
+        if (maze.hasTopWall(row, col)) {
+            g2d.drawLine(x, y, x + cellSize, y);
+        }
+        if (maze.hasRightWall(row, col)) {
+            g2d.drawLine(x + cellSize, y, x + cellSize, y + cellSize);
+        }
+        if (maze.hasBottomWall(row, col)) {
+            g2d.drawLine(x, y + cellSize, x + cellSize, y + cellSize);
+        }
+        if (maze.hasLeftWall(row, col)) {
+            g2d.drawLine(x, y, x, y + cellSize);
+        }
+    }
+
+    private void drawWeight(Graphics2D g2d, int row, int col, int x, int y) {
+        int weight = maze.getTerrain(row, col).getWeight();
+        if (weight > 1 && cellSize >= WEIGHT_LABEL_MIN_SIZE) {
+            g2d.setColor(WEIGHT_COLOR);
+            g2d.setFont(WEIGHT_FONT);
+            String weightStr = String.valueOf(weight);
+            FontMetrics fm = g2d.getFontMetrics();
+            int textX = x + (cellSize - fm.stringWidth(weightStr)) / 2;
+            int textY = y + (cellSize + fm.getAscent()) / 2 - 2;
+            g2d.drawString(weightStr, textX, textY);
+        }
+    }
 
     @Override
     protected void paintComponent(Graphics g) {
@@ -207,114 +746,137 @@ public class MazePanel extends JPanel {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        int offsetX = 50;
-        int offsetY = 50;
-
-        // Draw maze
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                Cell cell = maze.getCell(i, j);
-                int x = offsetX + j * CELL_SIZE;
-                int y = offsetY + i * CELL_SIZE;
-
-                // Determine cell color
-                Color cellColor = cell.getTerrain().getColor();
-                Position pos = new Position(i, j);
-
-                if (finalPath.contains(pos)) {
-                    cellColor = new Color(251, 191, 36); // Yellow - path
-                } else if (currentStep != null && currentStep.equals(pos) && isSolving) {
-                    cellColor = new Color(139, 92, 246); // Purple - current
-                } else if (exploredCells.contains(pos)) {
-                    cellColor = new Color(252, 165, 165); // Light red - explored
-                } else if (queueState.contains(pos)) {
-                    cellColor = new Color(196, 181, 253); // Light purple - in queue
-                } else if (currentStep != null && currentStep.equals(pos) && isGenerating) {
-                    cellColor = new Color(16, 185, 129); // Green - generating
-                } else if (visitedDuringGeneration.contains(pos.toString())) {
-                    cellColor = new Color(224, 242, 254); // Light blue - visited
-                }
-
-                g2d.setColor(cellColor);
-                g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-
-                // Draw weight
-                if (!finalPath.contains(pos) && !exploredCells.contains(pos) &&
-                        (currentStep == null || !currentStep.equals(pos))) {
-                    int weight = cell.getTerrain().getWeight();
-                    if (weight > 1) {
-                        g2d.setColor(new Color(51, 65, 85));
-                        g2d.setFont(new Font("Arial", Font.BOLD, 10));
-                        String weightStr = String.valueOf(weight);
-                        FontMetrics fm = g2d.getFontMetrics();
-                        int textX = x + (CELL_SIZE - fm.stringWidth(weightStr)) / 2;
-                        int textY = y + (CELL_SIZE + fm.getAscent()) / 2 - 2;
-                        g2d.drawString(weightStr, textX, textY);
-                    }
-                }
-
-                // Draw walls
-                g2d.setColor(new Color(30, 41, 59));
-                g2d.setStroke(new BasicStroke(2));
-
-                if (cell.hasTopWall()) {
-                    g2d.drawLine(x, y, x + CELL_SIZE, y);
-                }
-                if (cell.hasRightWall()) {
-                    g2d.drawLine(x + CELL_SIZE, y, x + CELL_SIZE, y + CELL_SIZE);
-                }
-                if (cell.hasBottomWall()) {
-                    g2d.drawLine(x, y + CELL_SIZE, x + CELL_SIZE, y + CELL_SIZE);
-                }
-                if (cell.hasLeftWall()) {
-                    g2d.drawLine(x, y, x, y + CELL_SIZE);
+        // Only the cells inside the repainted area are touched
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int fromRow = Math.max(0, (clip.y - OFFSET_Y) / cellSize - 1);
+        int toRow = Math.min(rows - 1, (clip.y + clip.height - OFFSET_Y) / cellSize + 1);
+        int fromCol = Math.max(0, (clip.x - OFFSET_X) / cellSize - 1);
+        int toCol = Math.min(cols - 1, (clip.x + clip.width - OFFSET_X) / cellSize + 1);
+
+        if (fromRow <= toRow && fromCol <= toCol) {
+            if (cellSize < LOD_CELL_SIZE) {
+                drawLodRaster(g2d, fromRow, toRow, fromCol, toCol);
+            } else {
+                if (useStaticLayer()) {
+                    updateStaticLayer();
+                    g2d.drawImage(staticLayer, OFFSET_X - 1, OFFSET_Y - 1, null);
+                } else {
+                    staticLayer = null;
+                    dirtyStaticCount = 0;
+                    g2d.translate(OFFSET_X, OFFSET_Y);
+                    drawStaticCells(g2d, fromRow, toRow, fromCol, toCol);
+                    g2d.translate(-OFFSET_X, -OFFSET_Y);
                 }
+                drawOverlays(g2d, fromRow, toRow, fromCol, toCol);
             }
         }
 
         // Draw START marker
-        int startX = offsetX + CELL_SIZE / 2;
-        int startY = offsetY + CELL_SIZE / 2;
-        g2d.setColor(new Color(34, 197, 94));
+        int startX = OFFSET_X + cellSize / 2;
+        int startY = OFFSET_Y + cellSize / 2;
+        g2d.setColor(START_COLOR);
         g2d.fillOval(startX - 10, startY - 10, 20, 20);
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        g2d.setFont(MARKER_FONT);
         g2d.drawString("S", startX - 5, startY + 5);
 
         // START label
-        g2d.setColor(new Color(34, 197, 94));
-        g2d.fillRoundRect(startX - 15, offsetY - 25, 30, 18, 3, 3);
+        g2d.setColor(START_COLOR);
+        g2d.fillRoundRect(startX - 15, OFFSET_Y - 25, 30, 18, 3, 3);
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 11));
-        g2d.drawString("START", startX - 14, offsetY - 12);
+        g2d.setFont(LABEL_FONT);
+        g2d.drawString("START", startX - 14, OFFSET_Y - 12);
 
         // Draw END marker
-        int endX = offsetX + (COLS - 1) * CELL_SIZE + CELL_SIZE / 2;
-        int endY = offsetY + (ROWS - 1) * CELL_SIZE + CELL_SIZE / 2;
-        g2d.setColor(new Color(239, 68, 68));
+        int endX = OFFSET_X + (cols - 1) * cellSize + cellSize / 2;
+        int endY = OFFSET_Y + (rows - 1) * cellSize + cellSize / 2;
+        g2d.setColor(END_COLOR);
         g2d.fillOval(endX - 10, endY - 10, 20, 20);
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        g2d.setFont(MARKER_FONT);
         g2d.drawString("E", endX - 5, endY + 5);
 
         // END label
-        g2d.setColor(new Color(239, 68, 68));
-        int endLabelY = offsetY + ROWS * CELL_SIZE + 8;
+        g2d.setColor(END_COLOR);
+        int endLabelY = OFFSET_Y + rows * cellSize + 8;
         g2d.fillRoundRect(endX - 12, endLabelY, 24, 18, 3, 3);
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 11));
+        g2d.setFont(LABEL_FONT);
         g2d.drawString("END", endX - 10, endLabelY + 13);
 
         // Draw legend
-        drawLegend(g2d, offsetX + COLS * CELL_SIZE + 20, offsetY);
+        drawLegend(g2d, OFFSET_X + cols * cellSize + 20, OFFSET_Y);
+    }
+
+    private Color overlayColor(byte state) {
+        switch (state) {
+            case OverlayGrid.PATH: return PATH_COLOR; // Yellow - path
+            case OverlayGrid.CURRENT:
+                // Purple - current while solving, green while generating
+                return isGenerating ? GENERATING_COLOR : CURRENT_COLOR;
+            case OverlayGrid.EXPLORED: return EXPLORED_COLOR; // Light red - explored
+            case OverlayGrid.QUEUED: return QUEUE_COLOR; // Light purple - in queue
+            case OverlayGrid.VISITED_GEN: return GEN_VISITED_COLOR; // Light blue - visited
+            default: return null;
+        }
+    }
+
+    private void drawOverlays(Graphics2D g2d, int fromRow, int toRow, int fromCol, int toCol) {
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                byte state = overlay.get(maze.cellId(i, j));
+                Color cellColor = overlayColor(state);
+                boolean showWeight = state == OverlayGrid.QUEUED || state == OverlayGrid.VISITED_GEN;
+
+                if (cellColor == null) continue;
+
+                int x = OFFSET_X + j * cellSize;
+                int y = OFFSET_Y + i * cellSize;
+                g2d.setColor(cellColor);
+                g2d.fillRect(x, y, cellSize, cellSize);
+                if (showWeight) {
+                    drawWeight(g2d, i, j, x, y);
+                }
+                drawWalls(g2d, i, j, x, y);
+            }
+        }
+    }
+
+    private void drawLodRaster(Graphics2D g2d, int fromRow, int toRow, int fromCol, int toCol) {
+        int width = toCol - fromCol + 1;
+        int height = toRow - fromRow + 1;
+        if (lodRaster == null || lodRaster.getWidth() < width || lodRaster.getHeight() < height) {
+            lodRaster = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            lodPixels = ((DataBufferInt) lodRaster.getRaster().getDataBuffer()).getData();
+        }
+
+        int stride = lodRaster.getWidth();
+        for (int i = fromRow; i <= toRow; i++) {
+            int rowStart = (i - fromRow) * stride - fromCol;
+            for (int j = fromCol; j <= toCol; j++) {
+                Color color = overlayColor(overlay.get(maze.cellId(i, j)));
+                if (color == null) {
+                    color = maze.getTerrain(i, j).getColor();
+                }
+                lodPixels[rowStart + j] = color.getRGB();
+            }
+        }
+
+        int x = OFFSET_X + fromCol * cellSize;
+        int y = OFFSET_Y + fromRow * cellSize;
+        g2d.drawImage(lodRaster, x, y, x + width * cellSize, y + height * cellSize,
+                0, 0, width, height, null);
     }
 
     private void drawLegend(Graphics2D g2d, int x, int y) {
-        g2d.setColor(new Color(30, 41, 59));
+        g2d.setColor(WALL_COLOR);
         g2d.fillRoundRect(x, y, 150, 230, 10, 10); // Increased height for sound info
 
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        g2d.setFont(MARKER_FONT);
         g2d.drawString("Terrain Types", x + 10, y + 25);
 
         int yOffset = y + 45;
@@ -322,20 +884,20 @@ public class MazePanel extends JPanel {
             g2d.setColor(terrain.getColor());
             g2d.fillRect(x + 10, yOffset, 20, 20);
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.PLAIN, 12));
+            g2d.setFont(LEGEND_TEXT_FONT);
             g2d.drawString(terrain.getName(), x + 35, yOffset + 15);
-            g2d.setFont(new Font("Arial", Font.PLAIN, 10));
+            g2d.setFont(LEGEND_SMALL_FONT);
             g2d.drawString("Cost: " + terrain.getWeight(), x + 95, yOffset + 15);
             yOffset += 30;
         }
 
         // Add sound status
         yOffset += 10;
-        g2d.setFont(new Font("Arial", Font.BOLD, 11));
+        g2d.setFont(LABEL_FONT);
         g2d.drawString("Sound: " + (soundManager.isEnabled() ? "ON 🔊" : "OFF 🔇"),
                 x + 10, yOffset);
         yOffset += 20;
-        g2d.setFont(new Font("Arial", Font.PLAIN, 10));
+        g2d.setFont(LEGEND_SMALL_FONT);
         g2d.drawString("Volume: " + (int)(soundManager.getVolume() * 100) + "%",
                 x + 10, yOffset);
     }
@@ -0,0 +1,132 @@
+import java.util.*;
+
+/**
+ * Path/cost queries between any two cells of a perfect maze. A perfect
+ * maze (what Prim generation produces) is a spanning tree, so the path
+ * between two cells is unique and runs through their lowest common
+ * ancestor.
+ *
+ * The index is built once by a BFS from cell 0 and stores, per cell, the
+ * parent, the depth, the weight prefix sum from the root and one jump
+ * pointer. The jump pointers use the skew-binary layout, so any ancestor
+ * or LCA is reached in O(log n) hops with O(n) memory. A full
+ * binary-lifting table would need log n ints per cell, which does not fit
+ * mazes with tens of millions of cells.
+ */
+public class MazePathIndex {
+    private final Maze maze;
+    private final int[] parent;
+    private final int[] jump;
+    private final int[] depth;
+    private final long[] prefixCost;
+
+    public MazePathIndex(Maze maze) {
+        this.maze = maze;
+        int cells = maze.getCellCount();
+        this.parent = new int[cells];
+        this.jump = new int[cells];
+        this.depth = new int[cells];
+        this.prefixCost = new long[cells];
+
+        Arrays.fill(parent, -2);
+        int[] queue = new int[cells];
+        int[] neighbors = new int[4];
+        int head = 0;
+        int tail = 0;
+        int edges = 0;
+
+        parent[0] = -1;
+        jump[0] = 0;
+        prefixCost[0] = maze.getWeight(0);
+        queue[tail++] = 0;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int count = maze.getNeighborIds(cell, neighbors);
+            for (int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                edges++;
+                if (next == parent[cell]) continue;
+                if (parent[next] != -2) {
+                    throw new IllegalArgumentException("Maze contains a loop, it is not a perfect maze");
+                }
+                parent[next] = cell;
+                depth[next] = depth[cell] + 1;
+                prefixCost[next] = prefixCost[cell] + maze.getWeight(next);
+
+                int j = jump[cell];
+                jump[next] = depth[cell] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : cell;
+                queue[tail++] = next;
+            }
+        }
+
+        if (tail != cells || edges / 2 != cells - 1) {
+            throw new IllegalArgumentException("Maze is not connected, it is not a perfect maze");
+        }
+    }
+
+    public int lowestCommonAncestor(int a, int b) {
+        if (depth[a] < depth[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        a = ancestorAtDepth(a, depth[b]);
+        while (a != b) {
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = parent[a];
+                b = parent[b];
+            }
+        }
+        return a;
+    }
+
+    /** Cost of walking from {@code from} to {@code to}: the weights of every cell entered. */
+    public long getCost(int from, int to) {
+        int lca = lowestCommonAncestor(from, to);
+        return prefixCost[from] + prefixCost[to] - 2 * prefixCost[lca]
+                + maze.getWeight(lca) - maze.getWeight(from);
+    }
+
+    public long getCost(Position from, Position to) {
+        return getCost(toId(from), toId(to));
+    }
+
+    /** Number of moves between the two cells. */
+    public int getDistance(int from, int to) {
+        int lca = lowestCommonAncestor(from, to);
+        return depth[from] + depth[to] - 2 * depth[lca];
+    }
+
+    public List<Position> getPath(Position from, Position to) {
+        int a = toId(from);
+        int b = toId(to);
+        int lca = lowestCommonAncestor(a, b);
+
+        List<Position> path = new ArrayList<>();
+        for (int cell = a; cell != lca; cell = parent[cell]) {
+            path.add(maze.toPosition(cell));
+        }
+        path.add(maze.toPosition(lca));
+        int split = path.size();
+        for (int cell = b; cell != lca; cell = parent[cell]) {
+            path.add(maze.toPosition(cell));
+        }
+        Collections.reverse(path.subList(split, path.size()));
+        return path;
+    }
+
+    private int ancestorAtDepth(int cell, int targetDepth) {
+        while (depth[cell] > targetDepth) {
+            cell = depth[jump[cell]] >= targetDepth ? jump[cell] : parent[cell];
+        }
+        return cell;
+    }
+
+    private int toId(Position pos) {
+        return maze.cellId(pos.getRow(), pos.getCol());
+    }
+}
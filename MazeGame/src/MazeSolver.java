@@ -1,27 +1,204 @@
 import java.util.*;
 
 public abstract class MazeSolver {
+    private static final String[] ALGORITHMS = {"BFS", "DFS", "Dijkstra", "A*", "Dial", "Bidirectional", "Junction Dijkstra"};
+
     protected Maze maze;
     protected Position start;
     protected Position goal;
+    protected int startId;
+    protected int goalId;
 
     public MazeSolver(Maze maze) {
         this.maze = maze;
         this.start = new Position(0, 0);
         this.goal = new Position(maze.getRows() - 1, maze.getCols() - 1);
+        this.startId = maze.cellId(start.getRow(), start.getCol());
+        this.goalId = maze.cellId(goal.getRow(), goal.getCol());
     }
 
-    public abstract void solve(SolverListener listener);
+    // Search state shared by every solver. Subclasses keep their own queues
+    // and distance arrays in fields so a search can be resumed step by step.
+    protected SolverEventListener listener;
+    protected int nodesExplored;
+    private boolean started;
+    private boolean finished;
+    private boolean solved;
+    private List<Position> path = Collections.emptyList();
+    private int pathCost;
+    private int peakFrontierSize;
+
+    /**
+     * Resets the search and queues the start cell. Progress is reported to
+     * {@code listener}, which may be null. Nothing is expanded until
+     * {@link #step()} is called.
+     */
+    public void start(SolverEventListener listener) {
+        this.listener = listener;
+        nodesExplored = 0;
+        started = true;
+        finished = false;
+        solved = false;
+        path = Collections.emptyList();
+        pathCost = 0;
+        initSearch();
+        peakFrontierSize = getFrontierSize();
+    }
+
+    /**
+     * Expands one cell. Returns true while there is more work to do; false
+     * once the goal was reached, the frontier ran out, or the calling thread
+     * was interrupted (in which case no result is reported). Starts the search
+     * without a listener if {@link #start} was not called.
+     */
+    public boolean step() {
+        if (!started) start(null);
+        if (finished) return false;
+        if (isCancelled()) {
+            finished = true;
+            return false;
+        }
+        if (!expandNext()) {
+            finished = true;
+            if (listener != null) listener.onNoSolution();
+            return false;
+        }
+        peakFrontierSize = Math.max(peakFrontierSize, getFrontierSize());
+        return !finished;
+    }
+
+    /** Steps until {@code nodes} cells have been expanded; true if not finished. */
+    public boolean stepUntil(int nodes) {
+        if (!started) start(null);
+        while (nodesExplored < nodes && step()) {
+            // keep going
+        }
+        return !finished;
+    }
+
+    public void runToEnd() {
+        while (step()) {
+            // keep going
+        }
+    }
+
+    /**
+     * Runs the search to completion, reporting each expansion and every
+     * change to the frontier to {@code listener} (which may be null).
+     */
+    public void solve(SolverEventListener listener) {
+        start(listener);
+        runToEnd();
+    }
+
+    /**
+     * Runs the search against a listener that wants full explored/queue
+     * snapshots on every step. The snapshots are rebuilt from the event
+     * stream, so this costs O(frontier) per step; prefer
+     * {@link #solve(SolverEventListener)} for large mazes.
+     */
+    public void solve(SolverListener listener) {
+        solve(listener == null ? null : new SnapshotListenerAdapter(maze, listener));
+    }
+
+    /** Allocates the search state and queues the start cell. */
+    protected abstract void initSearch();
+
+    /**
+     * Expands the next cell, skipping stale queue entries. Calls
+     * {@link #finishWithPath} when the goal is settled. Returns false if the
+     * frontier is empty and nothing could be expanded.
+     */
+    protected abstract boolean expandNext();
+
+    /** Number of entries currently queued, stale ones included. */
+    public abstract int getFrontierSize();
+
+    protected void finishWithPath(List<Position> path, int cost) {
+        this.path = path;
+        this.pathCost = cost;
+        solved = true;
+        finished = true;
+        if (listener != null) listener.onSolutionFound(path, cost, nodesExplored);
+    }
+
+    public boolean isFinished() { return finished; }
+    public boolean isSolved() { return solved; }
+    public List<Position> getPath() { return Collections.unmodifiableList(path); }
+    public int getPathCost() { return pathCost; }
+    public int getNodesExplored() { return nodesExplored; }
+    public int getPeakFrontierSize() { return peakFrontierSize; }
+
+    public static String[] getAlgorithmNames() {
+        return ALGORITHMS.clone();
+    }
+
+    /**
+     * Creates the solver registered under {@code algorithm}, as listed by
+     * {@link #getAlgorithmNames()}. Returns null for an unknown name.
+     */
+    public static MazeSolver create(String algorithm, Maze maze) {
+        switch (algorithm) {
+            case "BFS": return new BFSSolver(maze);
+            case "DFS": return new DFSSolver(maze);
+            case "Dijkstra": return new DijkstraSolver(maze);
+            case "A*": return new AStarSolver(maze);
+            case "Dial": return new DialSolver(maze);
+            case "Bidirectional": return new BidirectionalSolver(maze);
+            case "Junction Dijkstra": return new JunctionDijkstraSolver(maze);
+            default: return null;
+        }
+    }
 
     protected int heuristic(Position pos) {
         return Math.abs(pos.getRow() - goal.getRow()) +
                 Math.abs(pos.getCol() - goal.getCol());
     }
 
+    protected int heuristic(int id) {
+        return Math.abs(maze.rowOf(id) - goal.getRow()) +
+                Math.abs(maze.colOf(id) - goal.getCol());
+    }
+
+    /**
+     * True once the thread running the search has been interrupted.
+     * {@link #step()} checks this before every expansion and stops the
+     * search without reporting a result.
+     */
+    protected static boolean isCancelled() {
+        return Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Walks the parent array back from {@code id} to the start cell
+     * (whose parent is -1) and returns the path in start-to-goal order.
+     */
+    protected List<Position> buildPath(int[] parent, int id) {
+        List<Position> path = new ArrayList<>();
+        for (int cell = id; cell != -1; cell = parent[cell]) {
+            path.add(maze.toPosition(cell));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Incremental solver events. Cells are ids ({@code row * cols + col});
+     * a cell can be enqueued more than once if a cheaper route is found
+     * before it is expanded.
+     */
+    public interface SolverEventListener {
+        void onCellEnqueued(int cell);
+        void onCellDequeued(int cell);
+        void onCellExpanded(int cell, int nodesExplored);
+        void onSolutionFound(List<Position> path, int cost, int nodesExplored);
+        void onNoSolution();
+    }
+
     public interface SolverListener {
         void onStepComplete(Position current, Set<Position> explored,
                             List<Position> queue, int nodesExplored);
         void onSolutionFound(List<Position> path, int cost, int nodesExplored);
         void onNoSolution();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Everything that defines a generated maze: generator algorithm,
+ * dimensions, seed and terrain mix. Building the same spec twice gives
+ * bit-identical mazes.
+ *
+ * The seed feeds a {@link SplittableRandom} that is split into one stream
+ * for the terrain and one for the generator, so changing the terrain mix
+ * does not change the walls and vice versa. Generators that need more
+ * streams (one per thread, say) derive them from the generator stream.
+ */
+public final class MazeSpec {
+    /**
+     * Bumped whenever a generator, or the way terrain is drawn, changes
+     * what a given seed produces, so cached mazes from older code are not
+     * reused.
+     */
+    public static final int GENERATION_VERSION = 2;
+
+    private final String algorithm;
+    private final int rows;
+    private final int cols;
+    private final long seed;
+    private final TerrainMix terrain;
+
+    public MazeSpec(String algorithm, int rows, int cols, long seed, TerrainMix terrain) {
+        if (!MazeGenerator.isAlgorithm(algorithm)) {
+            throw new IllegalArgumentException("Unknown generator: " + algorithm);
+        }
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Bad maze size " + rows + "x" + cols);
+        }
+        this.algorithm = algorithm;
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+        this.terrain = Objects.requireNonNull(terrain);
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public long getSeed() { return seed; }
+    public TerrainMix getTerrain() { return terrain; }
+
+    /** A maze with this spec's terrain and all walls still standing. */
+    public Maze createMaze() {
+        return new Maze(rows, cols, streams()[0], terrain);
+    }
+
+    /** The generator that carves {@code maze} (from {@link #createMaze()}) into this spec's maze. */
+    public MazeGenerator createGenerator(Maze maze) {
+        return MazeGenerator.create(algorithm, maze, streams()[1]);
+    }
+
+    /** Creates and carves the maze in one go. */
+    public Maze build() {
+        Maze maze = createMaze();
+        createGenerator(maze).generate(null);
+        return maze;
+    }
+
+    // Split in a fixed order so each stream depends only on the seed
+    private SplittableRandom[] streams() {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom terrainStream = root.split();
+        SplittableRandom generatorStream = root.split();
+        return new SplittableRandom[] {terrainStream, generatorStream};
+    }
+
+    /** Canonical text form; two specs with the same key build the same maze. */
+    public String key() {
+        return "maze/" + GENERATION_VERSION + "|" + algorithm + "|" + rows + "x" + cols
+                + "|" + seed + "|" + terrain.key();
+    }
+
+    /** SHA-256 of {@link #key()} in hex, safe to use as a file name. */
+    public String hash() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MazeSpec)) return false;
+        MazeSpec other = (MazeSpec) o;
+        return rows == other.rows && cols == other.cols && seed == other.seed
+                && algorithm.equals(other.algorithm) && terrain.equals(other.terrain);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(algorithm, rows, cols, seed, terrain);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " " + rows + "x" + cols + " seed " + seed + " (" + terrain + " terrain)";
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Future for one generate or solve run submitted to a {@link MazeTaskScheduler}.
+ * The work receives its own task so it can report progress; cancelling the
+ * task interrupts the worker, and solvers/generators stop at their next step.
+ *
+ * Nobody waits on these futures, so an exception thrown by the work would
+ * otherwise vanish. It is logged and handed to the task's failure handler,
+ * which runs on the worker thread and should put the UI back to idle.
+ */
+public final class MazeTask extends FutureTask<Void> {
+    private final String name;
+    private final Consumer<Throwable> onFailure;
+    private volatile long done;
+    private volatile long total;
+
+    private MazeTask(String name, Body body, Consumer<Throwable> onFailure) {
+        super(body, null);
+        this.name = name;
+        this.onFailure = onFailure;
+        body.task = this;
+    }
+
+    static MazeTask create(String name, Consumer<MazeTask> work, Consumer<Throwable> onFailure) {
+        return new MazeTask(name, new Body(work), onFailure);
+    }
+
+    public String getName() { return name; }
+
+    public void setProgress(long done, long total) {
+        this.done = done;
+        this.total = total;
+    }
+
+    /** Fraction of the work done so far, 0 if the task has not reported any. */
+    public double getProgress() {
+        long t = total;
+        return t <= 0 ? 0 : Math.min(1.0, (double) done / t);
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) return;
+        try {
+            get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            System.err.println("Task " + name + " failed: " + cause);
+            cause.printStackTrace();
+            if (onFailure != null) {
+                onFailure.accept(cause);
+            }
+        } catch (InterruptedException e) {
+            // Cannot happen: done() runs after the result is set
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Body implements Runnable {
+        private final Consumer<MazeTask> work;
+        private MazeTask task;
+
+        Body(Consumer<MazeTask> work) {
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.accept(task);
+        }
+    }
+}
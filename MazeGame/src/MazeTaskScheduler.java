@@ -0,0 +1,62 @@
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs maze generation and solving off the EDT on a bounded pool of named
+ * daemon threads. Virtual threads are used when the running JDK has them;
+ * they are looked up reflectively so the class still loads on older JDKs.
+ *
+ * At most {@code parallelism} tasks run at once; further submissions wait
+ * in the pool's queue. Cancellation is cooperative: {@link MazeTask#cancel}
+ * interrupts the worker and the solver or generator returns at its next step.
+ */
+public class MazeTaskScheduler {
+    private final ExecutorService executor;
+
+    public MazeTaskScheduler() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public MazeTaskScheduler(int parallelism) {
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), createThreadFactory());
+        ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+    }
+
+    public MazeTask submit(String name, Consumer<MazeTask> work) {
+        return submit(name, work, null);
+    }
+
+    /**
+     * Like {@link #submit(String, Consumer)}, but if the work throws,
+     * {@code onFailure} is called with the exception on the worker thread.
+     */
+    public MazeTask submit(String name, Consumer<MazeTask> work, Consumer<Throwable> onFailure) {
+        MazeTask task = MazeTask.create(name, work, onFailure);
+        executor.execute(task);
+        return task;
+    }
+
+    /** Interrupts running tasks and stops accepting new ones. */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        try {
+            // Thread.ofVirtual().name("maze-worker-", 0).factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "maze-worker-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger count = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, "maze-worker-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
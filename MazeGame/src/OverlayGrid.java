@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+/**
+ * One byte of display state per maze cell, kept up to date from solver and
+ * generator events so painting can look a cell up in O(1). A cell holds a
+ * single state; transitions follow the priority the panel has always used
+ * (path over current over explored over queued over visited).
+ *
+ * Every transition also has an event code so a stream of (event, cell)
+ * pairs recorded on one thread can be replayed into another grid with
+ * {@link #apply(int, int)}.
+ */
+public class OverlayGrid {
+    public static final byte NONE = 0;
+    public static final byte VISITED_GEN = 1;
+    public static final byte QUEUED = 2;
+    public static final byte EXPLORED = 3;
+    public static final byte PATH = 4;
+    public static final byte CURRENT = 5;
+
+    // Event codes for apply()
+    public static final int CARVE = 0;
+    public static final int WALL_OPENED = 1;
+    public static final int FINISH_GENERATION = 2;
+    public static final int ENQUEUE = 3;
+    public static final int DEQUEUE = 4;
+    public static final int EXPAND = 5;
+    public static final int MARK_PATH = 6;
+    public static final int FINISH_SEARCH = 7;
+    public static final int CLEAR = 8;
+    public static final int CLEAR_SOLVER = 9;
+
+    private final Maze maze;
+    private final byte[] states;
+    private int current = -1;
+    private int queuedCount;
+
+    public OverlayGrid(Maze maze) {
+        this.maze = maze;
+        this.states = new byte[maze.getCellCount()];
+    }
+
+    public byte get(int cell) { return states[cell]; }
+    public int getCurrent() { return current; }
+    public int getQueuedCount() { return queuedCount; }
+
+    /** Replays one recorded event; {@code cell} is ignored by events that don't need it. */
+    public void apply(int event, int cell) {
+        switch (event) {
+            case CARVE: carve(cell); break;
+            case WALL_OPENED: break; // walls live in the maze, nothing to track here
+            case FINISH_GENERATION: finishGeneration(); break;
+            case ENQUEUE: enqueue(cell); break;
+            case DEQUEUE: dequeue(cell); break;
+            case EXPAND: expand(cell); break;
+            case MARK_PATH: markPath(cell); break;
+            case FINISH_SEARCH: finishSearch(); break;
+            case CLEAR: clear(); break;
+            case CLEAR_SOLVER: clearSolverState(); break;
+            default: throw new IllegalArgumentException("Unknown overlay event " + event);
+        }
+    }
+
+    /** Overwrites one cell's state; used to undo and redo recorded changes. */
+    public void set(int cell, byte state) {
+        states[cell] = state;
+    }
+
+    /** Overwrites the current cell and queued count, which {@link #set} leaves alone. */
+    public void setCursor(int current, int queuedCount) {
+        this.current = current;
+        this.queuedCount = queuedCount;
+    }
+
+    public void clear() {
+        Arrays.fill(states, NONE);
+        current = -1;
+        queuedCount = 0;
+    }
+
+    /** Drops solver state, keeping the cells visited during generation. */
+    public void clearSolverState() {
+        for (int id = 0; id < states.length; id++) {
+            states[id] = maze.isVisited(id) ? VISITED_GEN : NONE;
+        }
+        current = -1;
+        queuedCount = 0;
+    }
+
+    // Generation events
+    public void carve(int cell) {
+        if (current >= 0) {
+            states[current] = VISITED_GEN;
+        }
+        states[cell] = CURRENT;
+        current = cell;
+    }
+
+    public void finishGeneration() {
+        if (current >= 0) {
+            states[current] = VISITED_GEN;
+            current = -1;
+        }
+    }
+
+    // Solver events
+    public void enqueue(int cell) {
+        byte state = states[cell];
+        if (state == NONE || state == VISITED_GEN) {
+            states[cell] = QUEUED;
+            queuedCount++;
+        }
+    }
+
+    public void dequeue(int cell) {
+        if (states[cell] == QUEUED) {
+            states[cell] = maze.isVisited(cell) ? VISITED_GEN : NONE;
+            queuedCount--;
+        }
+    }
+
+    public void expand(int cell) {
+        if (current >= 0) {
+            states[current] = EXPLORED;
+        }
+        if (states[cell] == QUEUED) {
+            queuedCount--;
+        }
+        states[cell] = CURRENT;
+        current = cell;
+    }
+
+    public void finishSearch() {
+        if (current >= 0) {
+            states[current] = EXPLORED;
+            current = -1;
+        }
+    }
+
+    public void markPath(int cell) {
+        if (states[cell] == QUEUED) {
+            queuedCount--;
+        }
+        states[cell] = PATH;
+    }
+}
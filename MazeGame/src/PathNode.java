@@ -1,33 +1,24 @@
-import java.util.ArrayList;
-import java.util.List;
+/**
+ * A search node packed into a single long: the priority (cost for
+ * Dijkstra, fScore for A*) in the high 32 bits and the cell id in the low
+ * 32 bits. Comparing two packed nodes as longs orders them by priority, so
+ * they can sit in a {@link PathNodeHeap} without any boxing. The g-cost
+ * itself is kept by the solver in its distance array.
+ */
+public final class PathNode {
 
-public class PathNode implements Comparable<PathNode> {
-    private Position position;
-    private List<Position> path;
-    private int cost;
-    private int fScore; // For A*
-
-    public PathNode(Position position, List<Position> path, int cost) {
-        this.position = position;
-        this.path = new ArrayList<>(path);
-        this.cost = cost;
-        this.fScore = cost;
+    private PathNode() {
     }
 
-    public PathNode(Position position, List<Position> path, int cost, int fScore) {
-        this.position = position;
-        this.path = new ArrayList<>(path);
-        this.cost = cost;
-        this.fScore = fScore;
+    public static long pack(int cell, int priority) {
+        return ((long) priority << 32) | (cell & 0xFFFFFFFFL);
     }
 
-    public Position getPosition() { return position; }
-    public List<Position> getPath() { return path; }
-    public int getCost() { return cost; }
-    public int getFScore() { return fScore; }
+    public static int getCell(long node) {
+        return (int) node;
+    }
 
-    @Override
-    public int compareTo(PathNode other) {
-        return Integer.compare(this.fScore, other.fScore);
+    public static int getPriority(long node) {
+        return (int) (node >>> 32);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of packed {@link PathNode} longs. Grows by doubling and
+ * never allocates per push, unlike a PriorityQueue of boxed nodes.
+ */
+public class PathNodeHeap {
+    private long[] heap;
+    private int size;
+
+    public PathNodeHeap() {
+        this(64);
+    }
+
+    public PathNodeHeap(int initialCapacity) {
+        this.heap = new long[Math.max(1, initialCapacity)];
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public void clear() { size = 0; }
+
+    /** Entry at heap index {@code i}, in no particular order. */
+    public long get(int i) { return heap[i]; }
+
+    public long peek() { return heap[0]; }
+
+    public void offer(long node) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long p = heap[parent];
+            if (p <= node) break;
+            heap[i] = p;
+            i = parent;
+        }
+        heap[i] = node;
+    }
+
+    public long poll() {
+        long result = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            long c = heap[child];
+            int right = child + 1;
+            if (right < size && heap[right] < c) {
+                child = right;
+                c = heap[child];
+            }
+            if (last <= c) break;
+            heap[i] = c;
+            i = child;
+        }
+        if (size > 0) {
+            heap[i] = last;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Randomized Prim: grows one tree by carving to a uniformly chosen edge of
+ * its frontier. Gives many short dead ends and few long corridors.
+ */
+public class PrimGenerator extends MazeGenerator {
+    public PrimGenerator(Maze maze) {
+        this(maze, new Random());
+    }
+
+    public PrimGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        int startRow = random.nextInt(rows);
+        int startCol = random.nextInt(cols);
+
+        // Frontier edges are encoded as cell * 4 + direction
+        int[] frontier = new int[Math.max(16, Math.min(maze.getCellCount(), 1 << 20))];
+        int start = maze.cellId(startRow, startCol);
+        visit(start, 0);
+        int size = addFrontiers(start, frontier, 0);
+
+        while (size > 0) {
+            // Cooperative cancellation: leave the maze half-carved and report nothing
+            if (isCancelled()) return false;
+
+            // Uniform pick, then move the last edge into the hole
+            int index = random.nextInt(size);
+            int edge = frontier[index];
+            frontier[index] = frontier[--size];
+
+            int to = neighbor(edge >>> 2, edge & 3);
+            // Several edges can lead to the same cell; only the first one carves
+            if (!maze.isVisited(to)) {
+                carve(edge >>> 2, edge & 3, size);
+                if (size + 4 > frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontier.length * 2);
+                }
+                size = addFrontiers(to, frontier, size);
+            }
+        }
+        return true;
+    }
+
+    // Appends an edge for every unvisited neighbour of cell; returns the new size
+    private int addFrontiers(int cell, int[] frontier, int size) {
+        for (int direction = 0; direction < 4; direction++) {
+            int next = neighbor(cell, direction);
+            if (next >= 0 && !maze.isVisited(next)) {
+                frontier[size++] = cell << 2 | direction;
+            }
+        }
+        return size;
+    }
+}
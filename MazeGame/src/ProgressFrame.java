@@ -0,0 +1,47 @@
+/**
+ * Immutable batch of progress published by a maze worker thread: the
+ * overlay events recorded since the previous frame plus the counters the
+ * UI shows. Frames form a chain; the worker links each new frame to the
+ * previous one, and the painter walks the chain from the last frame it
+ * applied. Only the {@code next} link is written after construction, once,
+ * through a volatile field.
+ */
+public final class ProgressFrame {
+    public static final int IDLE = 0;
+    public static final int GENERATING = 1;
+    public static final int SOLVING = 2;
+
+    private final long version;
+    private final int[] events;
+    private final int phase;
+    private final int nodesExplored;
+    private final int pathCost;
+    private final int pathLength;
+
+    private volatile ProgressFrame next;
+
+    ProgressFrame(long version, int[] events, int phase, int nodesExplored, int pathCost, int pathLength) {
+        this.version = version;
+        this.events = events;
+        this.phase = phase;
+        this.nodesExplored = nodesExplored;
+        this.pathCost = pathCost;
+        this.pathLength = pathLength;
+    }
+
+    public long getVersion() { return version; }
+    public int getPhase() { return phase; }
+    public int getNodesExplored() { return nodesExplored; }
+    public int getPathCost() { return pathCost; }
+    public int getPathLength() { return pathLength; }
+
+    /** Number of (event, cell) pairs in this frame. */
+    public int getEventCount() { return events.length / 2; }
+    public int getEvent(int i) { return events[i * 2]; }
+    public int getEventCell(int i) { return events[i * 2 + 1]; }
+
+    /** The frame published after this one, or null if none yet. */
+    public ProgressFrame getNext() { return next; }
+
+    void setNext(ProgressFrame next) { this.next = next; }
+}
@@ -0,0 +1,241 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Window for a {@link SolverRace}: one small view of the maze per solver,
+ * side by side, and a live leaderboard underneath. Closing the window
+ * cancels the race.
+ */
+public class RaceWindow extends JDialog {
+    private static final int FRAME_INTERVAL_MS = 16;
+    private static final int TILE_GAP = 8;
+    private static final int TITLE_HEIGHT = 18;
+    private static final int MIN_WALL_CELL_SIZE = 6;
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 12);
+
+    private final SolverRace race;
+    private final TilePanel tiles;
+    private final LeaderboardModel leaderboard;
+    private final Timer frameTimer;
+
+    public RaceWindow(Window owner, SolverRace race) {
+        super(owner, "Solver Race", ModalityType.MODELESS);
+        this.race = race;
+
+        tiles = new TilePanel();
+        leaderboard = new LeaderboardModel();
+
+        JTable table = new JTable(leaderboard);
+        table.setFillsViewportHeight(true);
+        table.setRowHeight(22);
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setPreferredSize(new Dimension(800, 24 + 22 * race.getRacers().size()));
+
+        setLayout(new BorderLayout(5, 5));
+        add(tiles, BorderLayout.CENTER);
+        add(tableScroll, BorderLayout.SOUTH);
+        setSize(1000, 750);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        frameTimer = new Timer(FRAME_INTERVAL_MS, e -> {
+            boolean changed = false;
+            List<SolverRace.Racer> racers = race.getRacers();
+            for (int i = 0; i < racers.size(); i++) {
+                if (racers.get(i).poll()) {
+                    tiles.invalidateRaster(i);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                tiles.repaint();
+                leaderboard.refresh();
+            }
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                frameTimer.stop();
+                race.cancel();
+            }
+        });
+    }
+
+    /** Shows the window and starts the race. */
+    public void start(Supplier<FramePacer> pacers) {
+        setVisible(true);
+        race.start(pacers);
+        frameTimer.start();
+    }
+
+    private static Color stateColor(byte state) {
+        switch (state) {
+            case OverlayGrid.PATH: return MazePanel.PATH_COLOR;
+            case OverlayGrid.CURRENT: return MazePanel.CURRENT_COLOR;
+            case OverlayGrid.EXPLORED: return MazePanel.EXPLORED_COLOR;
+            case OverlayGrid.QUEUED: return MazePanel.QUEUE_COLOR;
+            case OverlayGrid.VISITED_GEN: return MazePanel.GEN_VISITED_COLOR;
+            default: return null;
+        }
+    }
+
+    private class TilePanel extends JPanel {
+        // One raster per racer at no more than tile resolution, rebuilt only
+        // after that racer published a frame or the tile changed size
+        private final BufferedImage[] rasters = new BufferedImage[race.getRacers().size()];
+        private final boolean[] stale = new boolean[rasters.length];
+
+        TilePanel() {
+            setBackground(new Color(15, 23, 42));
+        }
+
+        void invalidateRaster(int index) {
+            stale[index] = true;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            List<SolverRace.Racer> racers = race.getRacers();
+            if (racers.isEmpty()) return;
+
+            int columns = (int) Math.ceil(Math.sqrt(racers.size()));
+            int rowsOfTiles = (racers.size() + columns - 1) / columns;
+            int tileWidth = (getWidth() - TILE_GAP) / columns - TILE_GAP;
+            int tileHeight = (getHeight() - TILE_GAP) / rowsOfTiles - TILE_GAP;
+
+            for (int i = 0; i < racers.size(); i++) {
+                int x = TILE_GAP + (i % columns) * (tileWidth + TILE_GAP);
+                int y = TILE_GAP + (i / columns) * (tileHeight + TILE_GAP);
+                drawTile(g2d, i, racers.get(i), x, y, tileWidth, tileHeight);
+            }
+        }
+
+        private void drawTile(Graphics2D g2d, int index, SolverRace.Racer racer,
+                              int x, int y, int width, int height) {
+            Maze maze = race.getMaze();
+            int rows = maze.getRows();
+            int cols = maze.getCols();
+
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(TITLE_FONT);
+            g2d.drawString(racer.getAlgorithm() + "  (" + racer.getNodesExplored() + " nodes)",
+                    x, y + TITLE_HEIGHT - 5);
+
+            // Fit the maze into the tile, keeping cells square
+            double scale = Math.min((double) width / cols, (double) (height - TITLE_HEIGHT) / rows);
+            if (scale <= 0) return;
+            int drawWidth = (int) (cols * scale);
+            int drawHeight = (int) (rows * scale);
+            int top = y + TITLE_HEIGHT;
+
+            // Big mazes are sampled, one cell per tile pixel
+            int rasterWidth = Math.max(1, Math.min(cols, drawWidth));
+            int rasterHeight = Math.max(1, Math.min(rows, drawHeight));
+            BufferedImage raster = rasters[index];
+            if (raster == null || raster.getWidth() != rasterWidth || raster.getHeight() != rasterHeight) {
+                raster = new BufferedImage(rasterWidth, rasterHeight, BufferedImage.TYPE_INT_RGB);
+                rasters[index] = raster;
+                stale[index] = true;
+            }
+            if (stale[index]) {
+                updateRaster(raster, maze, racer.getOverlay());
+                stale[index] = false;
+            }
+            g2d.drawImage(rasters[index], x, top, drawWidth, drawHeight, null);
+
+            if (scale >= MIN_WALL_CELL_SIZE) {
+                drawWalls(g2d, maze, x, top, scale);
+            }
+            g2d.setColor(MazePanel.WALL_COLOR);
+            g2d.drawRect(x, top, drawWidth, drawHeight);
+        }
+
+        private void updateRaster(BufferedImage raster, Maze maze, OverlayGrid overlay) {
+            int width = raster.getWidth();
+            int height = raster.getHeight();
+            int[] pixels = ((DataBufferInt) raster.getRaster().getDataBuffer()).getData();
+            int[] sampledCols = new int[width];
+            for (int x = 0; x < width; x++) {
+                sampledCols[x] = (int) ((long) x * maze.getCols() / width);
+            }
+            for (int y = 0; y < height; y++) {
+                int row = (int) ((long) y * maze.getRows() / height);
+                for (int x = 0; x < width; x++) {
+                    int col = sampledCols[x];
+                    Color color = stateColor(overlay.get(maze.cellId(row, col)));
+                    if (color == null) {
+                        color = maze.getTerrain(row, col).getColor();
+                    }
+                    pixels[y * width + x] = color.getRGB();
+                }
+            }
+        }
+
+        private void drawWalls(Graphics2D g2d, Maze maze, int left, int top, double scale) {
+            g2d.setColor(MazePanel.WALL_COLOR);
+            for (int i = 0; i < maze.getRows(); i++) {
+                int y1 = top + (int) (i * scale);
+                int y2 = top + (int) ((i + 1) * scale);
+                for (int j = 0; j < maze.getCols(); j++) {
+                    int x1 = left + (int) (j * scale);
+                    int x2 = left + (int) ((j + 1) * scale);
+                    if (maze.hasRightWall(i, j)) g2d.drawLine(x2, y1, x2, y2);
+                    if (maze.hasBottomWall(i, j)) g2d.drawLine(x1, y2, x2, y2);
+                }
+            }
+        }
+    }
+
+    private class LeaderboardModel extends AbstractTableModel {
+        private final String[] columns = {"#", "Algorithm", "Status", "Nodes Explored", "Time (ms)", "Path Cost", "Path Length"};
+        private List<SolverRace.Racer> rows = race.getLeaderboard();
+
+        void refresh() {
+            rows = race.getLeaderboard();
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() { return rows.size(); }
+
+        @Override
+        public int getColumnCount() { return columns.length; }
+
+        @Override
+        public String getColumnName(int column) { return columns[column]; }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            SolverRace.Racer racer = rows.get(row);
+            boolean solved = racer.getStatus() == SolverRace.SOLVED;
+            switch (column) {
+                case 0: return row + 1;
+                case 1: return racer.getAlgorithm();
+                case 2: return statusText(racer.getStatus());
+                case 3: return racer.getNodesExplored();
+                case 4: return String.format("%.2f", racer.getSolveNanos() / 1e6);
+                case 5: return solved ? String.valueOf(racer.getPathCost()) : "-";
+                default: return solved ? String.valueOf(racer.getPathLength()) : "-";
+            }
+        }
+
+        private String statusText(int status) {
+            switch (status) {
+                case SolverRace.SOLVED: return "Solved";
+                case SolverRace.NO_SOLUTION: return "No solution";
+                case SolverRace.CANCELLED: return "Cancelled";
+                case SolverRace.FAILED: return "Failed";
+                default: return "Running";
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Sidewinder: works row by row, carving runs of cells eastward and closing
+ * each run by carving north from one random cell of it. The top row is one
+ * open corridor, and every route heads steadily north. Only the current
+ * run is kept in memory.
+ */
+public class SidewinderGenerator extends MazeGenerator {
+    public SidewinderGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        // Top row: a single corridor
+        visit(0, 0);
+        for (int col = 0; col < cols - 1; col++) {
+            carve(col, 1, cols - col - 1);
+        }
+
+        for (int row = 1; row < rows; row++) {
+            if (isCancelled()) return false;
+
+            int runStart = 0;
+            for (int col = 0; col < cols; col++) {
+                boolean closeRun = col == cols - 1 || random.nextBoolean();
+                if (closeRun) {
+                    carveRun(row, runStart, col, runStart + random.nextInt(col - runStart + 1));
+                    runStart = col + 1;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Links the run to the row above at 'link', then carves outwards from there
+    // so each reported cell grows from one that is already connected
+    private void carveRun(int row, int first, int last, int link) {
+        int base = row * cols;
+        carve(base - cols + link, 2, last - first);
+        for (int col = link; col > first; col--) {
+            carve(base + col, 3, last - first);
+        }
+        for (int col = link; col < last; col++) {
+            carve(base + col, 1, last - first);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+import java.util.*;
+
+/**
+ * Turns the incremental {@link MazeSolver.SolverEventListener} stream back
+ * into the full explored/queue snapshots expected by a
+ * {@link MazeSolver.SolverListener}. Kept for callers written against the
+ * snapshot contract; building the queue list is O(frontier) per step.
+ */
+public class SnapshotListenerAdapter implements MazeSolver.SolverEventListener {
+    private final Maze maze;
+    private final MazeSolver.SolverListener listener;
+    private final Set<Position> explored = new HashSet<>();
+    private final Set<Integer> frontier = new LinkedHashSet<>();
+
+    public SnapshotListenerAdapter(Maze maze, MazeSolver.SolverListener listener) {
+        this.maze = maze;
+        this.listener = listener;
+    }
+
+    @Override
+    public void onCellEnqueued(int cell) {
+        frontier.add(cell);
+    }
+
+    @Override
+    public void onCellDequeued(int cell) {
+        frontier.remove(cell);
+    }
+
+    @Override
+    public void onCellExpanded(int cell, int nodesExplored) {
+        Position pos = maze.toPosition(cell);
+        explored.add(pos);
+        List<Position> queue = new ArrayList<>(frontier.size());
+        for (int id : frontier) {
+            queue.add(maze.toPosition(id));
+        }
+        listener.onStepComplete(pos, explored, queue, nodesExplored);
+    }
+
+    @Override
+    public void onSolutionFound(List<Position> path, int cost, int nodesExplored) {
+        listener.onSolutionFound(path, cost, nodesExplored);
+    }
+
+    @Override
+    public void onNoSolution() {
+        listener.onNoSolution();
+    }
+}
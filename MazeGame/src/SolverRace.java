@@ -0,0 +1,213 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs several solvers at once on one shared maze. The maze must not change
+ * while the race runs; solvers only read it, so a single snapshot is shared
+ * by all of them. Each racer has its own task on a scheduler sized to the
+ * number of racers, and its own {@link FrameChannel} that the EDT polls.
+ *
+ * Solve time counts only the time spent stepping the solver, not the time
+ * spent waiting for the frame pacer, so races stay comparable at any
+ * playback speed.
+ */
+public class SolverRace {
+    public static final int RUNNING = 0;
+    public static final int SOLVED = 1;
+    public static final int NO_SOLUTION = 2;
+    public static final int CANCELLED = 3;
+    public static final int FAILED = 4;
+
+    private final Maze maze;
+    private final List<Racer> racers = new ArrayList<>();
+    private final MazeTaskScheduler scheduler;
+
+    public SolverRace(Maze maze, String[] algorithms) {
+        this.maze = maze;
+        for (String algorithm : algorithms) {
+            MazeSolver solver = MazeSolver.create(algorithm, maze);
+            if (solver != null) {
+                racers.add(new Racer(algorithm, solver, new OverlayGrid(maze)));
+            }
+        }
+        scheduler = new MazeTaskScheduler(Math.max(1, racers.size()));
+    }
+
+    public Maze getMaze() { return maze; }
+    public List<Racer> getRacers() { return Collections.unmodifiableList(racers); }
+
+    /** Starts every racer; each gets its own pacer from {@code pacers}. */
+    public void start(Supplier<FramePacer> pacers) {
+        for (Racer racer : racers) {
+            racer.overlay.clearSolverState();
+            racer.task = scheduler.submit("race " + racer.algorithm,
+                    task -> racer.run(pacers.get(), maze), racer::fail);
+        }
+    }
+
+    /** Stops every racer still running; the race cannot be restarted. */
+    public void cancel() {
+        for (Racer racer : racers) {
+            if (racer.task != null) racer.task.cancel(true);
+        }
+        scheduler.shutdown();
+    }
+
+    /**
+     * Applies the frames every racer published since the last call. Racer
+     * stats and status reflect only what has been polled. EDT only.
+     * Returns true if anything changed.
+     */
+    public boolean poll() {
+        boolean changed = false;
+        for (Racer racer : racers) {
+            changed |= racer.poll();
+        }
+        return changed;
+    }
+
+    public boolean isFinished() {
+        for (Racer racer : racers) {
+            if (racer.getStatus() == RUNNING) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Racers in leaderboard order: solved ones by path cost then solve time,
+     * then those that found nothing, then the ones still running by most
+     * nodes explored.
+     */
+    public List<Racer> getLeaderboard() {
+        List<Racer> board = new ArrayList<>(racers);
+        board.sort(Comparator.comparingInt(SolverRace::rank)
+                .thenComparingInt(r -> r.getStatus() == SOLVED ? r.getPathCost() : 0)
+                .thenComparingLong(r -> r.getStatus() == RUNNING ? -r.getNodesExplored() : r.getSolveNanos()));
+        return board;
+    }
+
+    private static int rank(Racer racer) {
+        switch (racer.getStatus()) {
+            case SOLVED: return 0;
+            case NO_SOLUTION: return 1;
+            case RUNNING: return 2;
+            default: return 3;
+        }
+    }
+
+    public static final class Racer {
+        private final String algorithm;
+        private final MazeSolver solver;
+        private final FrameChannel channel = new FrameChannel(ProgressFrame.SOLVING);
+
+        // Written by the worker
+        private volatile int status = RUNNING;
+        private volatile long solveNanos;
+        private MazeTask task;
+
+        // EDT side
+        private final OverlayGrid overlay;
+        private ProgressFrame lastFrame = channel.takeHead();
+        private int nodesExplored;
+        private int pathCost;
+        private int pathLength;
+        private int shownStatus = RUNNING;
+
+        private Racer(String algorithm, MazeSolver solver, OverlayGrid overlay) {
+            this.algorithm = algorithm;
+            this.solver = solver;
+            this.overlay = overlay;
+        }
+
+        public String getAlgorithm() { return algorithm; }
+        public OverlayGrid getOverlay() { return overlay; }
+        public int getStatus() { return task != null && task.isCancelled() ? CANCELLED : shownStatus; }
+        public long getSolveNanos() { return solveNanos; }
+        public int getNodesExplored() { return nodesExplored; }
+        public int getPathCost() { return pathCost; }
+        public int getPathLength() { return pathLength; }
+
+        private void run(FramePacer pacer, Maze maze) {
+            solver.start(new MazeSolver.SolverEventListener() {
+                @Override
+                public void onCellEnqueued(int cell) {
+                    channel.record(OverlayGrid.ENQUEUE, cell);
+                }
+
+                @Override
+                public void onCellDequeued(int cell) {
+                    channel.record(OverlayGrid.DEQUEUE, cell);
+                }
+
+                @Override
+                public void onCellExpanded(int cell, int nodes) {
+                    channel.record(OverlayGrid.EXPAND, cell);
+                }
+
+                @Override
+                public void onSolutionFound(List<Position> path, int cost, int nodes) {
+                    channel.record(OverlayGrid.FINISH_SEARCH, -1);
+                    for (Position pos : path) {
+                        channel.record(OverlayGrid.MARK_PATH, maze.cellId(pos.getRow(), pos.getCol()));
+                    }
+                }
+
+                @Override
+                public void onNoSolution() {
+                    channel.record(OverlayGrid.FINISH_SEARCH, -1);
+                }
+            });
+
+            long busy = 0;
+            long stepStart = System.nanoTime();
+            while (solver.step()) {
+                if (pacer.endStep()) {
+                    busy += System.nanoTime() - stepStart;
+                    solveNanos = busy;
+                    channel.publish(ProgressFrame.SOLVING, solver.getNodesExplored(), 0, 0);
+                    pacer.awaitNextFrame();
+                    stepStart = System.nanoTime();
+                }
+            }
+            solveNanos = busy + System.nanoTime() - stepStart;
+
+            if (solver.isSolved()) {
+                status = SOLVED;
+            } else {
+                status = Thread.currentThread().isInterrupted() ? CANCELLED : NO_SOLUTION;
+            }
+            channel.publishNow(ProgressFrame.IDLE, solver.getNodesExplored(),
+                    solver.getPathCost(), solver.getPath().size());
+        }
+
+        // Worker side: the solver threw, so finish with what was published so far
+        private void fail(Throwable error) {
+            status = FAILED;
+            channel.record(OverlayGrid.FINISH_SEARCH, -1);
+            channel.publishNow(ProgressFrame.IDLE, solver.getNodesExplored(), 0, 0);
+        }
+
+        /** Applies the frames this racer published since the last call. EDT only. */
+        public boolean poll() {
+            ProgressFrame frame = lastFrame;
+            ProgressFrame next;
+            while ((next = frame.getNext()) != null) {
+                frame = next;
+                for (int i = 0; i < frame.getEventCount(); i++) {
+                    overlay.apply(frame.getEvent(i), frame.getEventCell(i));
+                }
+                nodesExplored = frame.getNodesExplored();
+                pathCost = frame.getPathCost();
+                pathLength = frame.getPathLength();
+                if (frame.getPhase() == ProgressFrame.IDLE) {
+                    // Set by the worker before it published this frame
+                    shownStatus = status;
+                }
+            }
+            if (frame == lastFrame) return false;
+            lastFrame = frame;
+            channel.markConsumed(frame);
+            return true;
+        }
+    }
+}
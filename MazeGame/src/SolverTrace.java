@@ -0,0 +1,427 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * Compact record of one solver run. Every event is stored as a varint of
+ * {@code cell << 2 | type}, so a typical expansion (dequeue, expand and a
+ * couple of enqueues) costs about ten bytes on a large maze.
+ *
+ * A step is one expansion: the dequeue, the expand and the enqueues that
+ * follow it. Step 0 is the state after the start cell is queued, and a
+ * solved run has one extra final step that marks the path. {@link Player}
+ * replays a trace into an {@link OverlayGrid} and can seek to any step.
+ *
+ * Traces remember the fingerprint of the maze they were recorded on, so a
+ * saved trace is only loaded back onto the same maze.
+ */
+public class SolverTrace {
+    private static final int ENQUEUE = 0;
+    private static final int DEQUEUE = 1;
+    private static final int EXPAND = 2;
+    private static final int PATH = 3;
+
+    private static final int MAGIC = 0x4D5A5452; // "MZTR"
+    private static final int FORMAT_VERSION = 1;
+
+    private final String algorithm;
+    private final int rows;
+    private final int cols;
+    private final long mazeFingerprint;
+
+    private byte[] data;
+    private int length;
+    private int eventCount;
+    private int expansions;
+    private boolean finished;
+    private boolean solved;
+    private int pathCost;
+    private int pathLength;
+
+    public SolverTrace(Maze maze, String algorithm) {
+        this(algorithm, maze.getRows(), maze.getCols(), maze.fingerprint(), new byte[1024], 0);
+    }
+
+    private SolverTrace(String algorithm, int rows, int cols, long mazeFingerprint, byte[] data, int length) {
+        this.algorithm = algorithm;
+        this.rows = rows;
+        this.cols = cols;
+        this.mazeFingerprint = mazeFingerprint;
+        this.data = data;
+        this.length = length;
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    public int getEventCount() { return eventCount; }
+    public int getByteSize() { return length; }
+    public boolean isFinished() { return finished; }
+    public boolean isSolved() { return solved; }
+    public int getPathCost() { return pathCost; }
+    public int getPathLength() { return pathLength; }
+    public int getNodesExplored() { return expansions; }
+
+    /** Number of the last step; steps run from 0 to this value inclusive. */
+    public int getStepCount() {
+        return expansions + (solved ? 1 : 0);
+    }
+
+    /** True if this trace was recorded on {@code maze} (same walls and terrain). */
+    public boolean matches(Maze maze) {
+        return maze.getRows() == rows && maze.getCols() == cols && maze.fingerprint() == mazeFingerprint;
+    }
+
+    /**
+     * Returns a listener that records every event into this trace and then
+     * forwards it to {@code delegate} (which may be null).
+     */
+    public MazeSolver.SolverEventListener recordTo(MazeSolver.SolverEventListener delegate) {
+        return new MazeSolver.SolverEventListener() {
+            @Override
+            public void onCellEnqueued(int cell) {
+                append(ENQUEUE, cell);
+                if (delegate != null) delegate.onCellEnqueued(cell);
+            }
+
+            @Override
+            public void onCellDequeued(int cell) {
+                append(DEQUEUE, cell);
+                if (delegate != null) delegate.onCellDequeued(cell);
+            }
+
+            @Override
+            public void onCellExpanded(int cell, int nodesExplored) {
+                append(EXPAND, cell);
+                expansions++;
+                if (delegate != null) delegate.onCellExpanded(cell, nodesExplored);
+            }
+
+            @Override
+            public void onSolutionFound(List<Position> path, int cost, int nodesExplored) {
+                for (Position pos : path) {
+                    append(PATH, pos.getRow() * cols + pos.getCol());
+                }
+                solved = true;
+                pathCost = cost;
+                pathLength = path.size();
+                finished = true;
+                if (delegate != null) delegate.onSolutionFound(path, cost, nodesExplored);
+            }
+
+            @Override
+            public void onNoSolution() {
+                finished = true;
+                if (delegate != null) delegate.onNoSolution();
+            }
+        };
+    }
+
+    private void append(int type, int cell) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        int value = cell << 2 | type;
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+        eventCount++;
+    }
+
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(algorithm);
+            out.writeInt(rows);
+            out.writeInt(cols);
+            out.writeLong(mazeFingerprint);
+            out.writeBoolean(solved);
+            out.writeInt(pathCost);
+            out.writeInt(pathLength);
+            out.writeInt(expansions);
+            out.writeInt(eventCount);
+            out.writeInt(length);
+            out.write(data, 0, length);
+        }
+    }
+
+    /**
+     * Reads a trace written by {@link #save}. Throws an IOException if the
+     * file is not a trace or its header does not agree with its events.
+     */
+    public static SolverTrace load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a solver trace: " + file.getName());
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported trace version " + version);
+            }
+            String algorithm = in.readUTF();
+            int rows = in.readInt();
+            int cols = in.readInt();
+            long fingerprint = in.readLong();
+            boolean solved = in.readBoolean();
+            int pathCost = in.readInt();
+            int pathLength = in.readInt();
+            int expansions = in.readInt();
+            int eventCount = in.readInt();
+            int length = in.readInt();
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE >> 2
+                    || length < 0 || length > file.length()
+                    || pathCost < 0 || pathLength < 0 || expansions < 0 || eventCount < 0) {
+                throw new IOException("Corrupt solver trace");
+            }
+            byte[] data = new byte[length];
+            in.readFully(data);
+
+            SolverTrace trace = new SolverTrace(algorithm, rows, cols, fingerprint, data, length);
+            trace.finished = true;
+            trace.solved = solved;
+            trace.pathCost = pathCost;
+            trace.pathLength = pathLength;
+            trace.expansions = expansions;
+            trace.eventCount = eventCount;
+            if (!trace.eventsMatchHeader()) {
+                throw new IOException("Corrupt solver trace");
+            }
+            return trace;
+        } catch (EOFException e) {
+            throw new IOException("Corrupt solver trace", e);
+        }
+    }
+
+    // Decodes every event once, so a player never meets a bad cell or a
+    // count that disagrees with the data
+    private boolean eventsMatchHeader() {
+        int cells = rows * cols;
+        int events = 0;
+        int expands = 0;
+        int pathCells = 0;
+        int offset = 0;
+        while (offset < length) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (offset == length || shift > 28) return false;
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            if ((value >>> 2) >= cells) return false;
+            switch (value & 3) {
+                case EXPAND: expands++; break;
+                case PATH: pathCells++; break;
+                default: break;
+            }
+            events++;
+        }
+        return events == eventCount && expands == expansions
+                && pathCells == (solved ? pathLength : 0);
+    }
+
+    /**
+     * Replays a finished trace into an overlay grid. The grid's state when
+     * the player is created is taken as the state before the search.
+     *
+     * Every {@value #INTERVAL} steps the player keeps a checkpoint holding
+     * only the cells that changed since the previous one, with their old and
+     * new states, so checkpoints together cost about as much as the changes
+     * themselves rather than a grid copy each. Cells changed since the
+     * current checkpoint are logged the same way. Seeking undoes that log,
+     * walks the checkpoint deltas to the one at or before the target, and
+     * replays at most one interval of events; moving the slider a little
+     * therefore costs about one interval, whatever the size of the maze.
+     *
+     * Creating a player replays the whole trace once, so do it off the EDT.
+     */
+    public static class Player {
+        private static final int INTERVAL = 1024;
+
+        private final SolverTrace trace;
+        private final OverlayGrid grid;
+        // Checkpoint k is the state after step k * INTERVAL
+        private final List<Checkpoint> checkpoints = new ArrayList<>();
+        private int checkpoint;
+
+        // Cells changed since the current checkpoint, with their state there
+        private final BitSet logged;
+        private int[] logCells = new int[64];
+        private byte[] logStates = new byte[64];
+        private int logSize;
+
+        private int step;
+        private int offset;
+        private boolean inPath;
+
+        public Player(SolverTrace trace, OverlayGrid grid) {
+            this.trace = trace;
+            this.grid = grid;
+            this.logged = new BitSet(trace.rows * trace.cols);
+
+            // Step 0 is the start cell being queued
+            playStep();
+            clearLog();
+            checkpoints.add(new Checkpoint(offset, grid, new int[0], new byte[0]));
+
+            // One pass over the whole trace to lay down the checkpoints
+            while (step < trace.getStepCount()) {
+                playStep();
+                step++;
+                if (step % INTERVAL == 0) {
+                    addCheckpoint();
+                }
+            }
+            checkpoint = checkpoints.size() - 1;
+        }
+
+        public int getStep() { return step; }
+
+        /** Puts the grid in the state it had after {@code target} steps. */
+        public void seek(int target) {
+            target = Math.max(0, Math.min(target, trace.getStepCount()));
+            int index = target / INTERVAL;
+            if (index != checkpoint || target < step) {
+                // Back to the current checkpoint, then across to the target's
+                for (int i = 0; i < logSize; i++) {
+                    grid.set(logCells[i], logStates[i]);
+                }
+                clearLog();
+                while (checkpoint < index) {
+                    checkpoints.get(++checkpoint).redo(grid);
+                }
+                while (checkpoint > index) {
+                    checkpoints.get(checkpoint--).undo(grid);
+                }
+                Checkpoint at = checkpoints.get(checkpoint);
+                grid.setCursor(at.current, at.queuedCount);
+                offset = at.offset;
+                step = checkpoint * INTERVAL;
+                // Checkpoints sit on step boundaries, and only the last step is in the path
+                inPath = trace.solved && step == trace.getStepCount();
+            }
+            while (step < target) {
+                playStep();
+                step++;
+            }
+        }
+
+        // Turns the change log into a checkpoint at the current step
+        private void addCheckpoint() {
+            int changed = 0;
+            for (int i = 0; i < logSize; i++) {
+                if (grid.get(logCells[i]) != logStates[i]) {
+                    logCells[changed] = logCells[i];
+                    logStates[changed] = logStates[i];
+                    changed++;
+                }
+            }
+            checkpoints.add(new Checkpoint(offset, grid,
+                    Arrays.copyOf(logCells, changed), Arrays.copyOf(logStates, changed)));
+            clearLog();
+        }
+
+        // Remembers the state of cell before the next event changes it
+        private void track(int cell) {
+            if (cell < 0 || logged.get(cell)) return;
+            logged.set(cell);
+            if (logSize == logCells.length) {
+                logCells = Arrays.copyOf(logCells, logSize * 2);
+                logStates = Arrays.copyOf(logStates, logSize * 2);
+            }
+            logCells[logSize] = cell;
+            logStates[logSize] = grid.get(cell);
+            logSize++;
+        }
+
+        private void clearLog() {
+            for (int i = 0; i < logSize; i++) {
+                logged.clear(logCells[i]);
+            }
+            logSize = 0;
+        }
+
+        // Applies one step: its opening event plus everything up to the next
+        // dequeue (or the first path cell, which opens the final step)
+        private void playStep() {
+            boolean first = true;
+            while (offset < trace.length) {
+                int start = offset;
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = trace.data[offset++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+
+                int type = value & 3;
+                int cell = value >>> 2;
+                if (!first && (type == DEQUEUE || (type == PATH && !inPath))) {
+                    offset = start;
+                    return;
+                }
+                first = false;
+                // An event changes at most its own cell and the current one
+                track(cell);
+                track(grid.getCurrent());
+                switch (type) {
+                    case ENQUEUE: grid.enqueue(cell); break;
+                    case DEQUEUE: grid.dequeue(cell); break;
+                    case EXPAND: grid.expand(cell); break;
+                    default:
+                        if (!inPath) {
+                            grid.finishSearch();
+                            inPath = true;
+                        }
+                        grid.markPath(cell);
+                        break;
+                }
+            }
+            if (!trace.solved) {
+                track(grid.getCurrent());
+                grid.finishSearch();
+            }
+        }
+    }
+
+    /** Cells changed between two checkpoints, plus the counters at the later one. */
+    private static final class Checkpoint {
+        private final int offset;
+        private final int current;
+        private final int queuedCount;
+        private final int[] cells;
+        private final byte[] before;
+        private final byte[] after;
+
+        Checkpoint(int offset, OverlayGrid grid, int[] cells, byte[] before) {
+            this.offset = offset;
+            this.current = grid.getCurrent();
+            this.queuedCount = grid.getQueuedCount();
+            this.cells = cells;
+            this.before = before;
+            this.after = new byte[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                after[i] = grid.get(cells[i]);
+            }
+        }
+
+        void redo(OverlayGrid grid) {
+            for (int i = 0; i < cells.length; i++) {
+                grid.set(cells[i], after[i]);
+            }
+        }
+
+        void undo(OverlayGrid grid) {
+            for (int i = 0; i < cells.length; i++) {
+                grid.set(cells[i], before[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * A terrain distribution: the probability of each {@link TerrainType}.
+ * Part of what defines a maze in a {@link MazeSpec}, so it is immutable and
+ * has a stable text key.
+ */
+public final class TerrainMix {
+    /** The game's own mix, from {@link TerrainType#getProbability()}. */
+    public static final TerrainMix DEFAULT = standard();
+    /** Plain ground only; every step costs the same. */
+    public static final TerrainMix UNIFORM = new TerrainMix("uniform", 1.0, 0.0, 0.0, 0.0);
+    /** Mostly mud and water. */
+    public static final TerrainMix HEAVY = new TerrainMix("heavy", 0.1, 0.2, 0.3, 0.4);
+
+    private static final TerrainType[] TYPES = TerrainType.values();
+    private static final Map<String, TerrainMix> PRESETS = new LinkedHashMap<>();
+
+    static {
+        for (TerrainMix mix : new TerrainMix[] {DEFAULT, UNIFORM, HEAVY}) {
+            PRESETS.put(mix.name, mix);
+        }
+    }
+
+    private final String name;
+    private final double[] probabilities;
+
+    /** {@code probabilities} are in {@link TerrainType} order and must add up to 1. */
+    public TerrainMix(String name, double... probabilities) {
+        if (probabilities.length != TerrainType.values().length) {
+            throw new IllegalArgumentException("Expected " + TerrainType.values().length
+                    + " probabilities, got " + probabilities.length);
+        }
+        double sum = 0;
+        for (double p : probabilities) {
+            if (p < 0) throw new IllegalArgumentException("Negative probability in " + name);
+            sum += p;
+        }
+        if (Math.abs(sum - 1) > 1e-9) {
+            throw new IllegalArgumentException("Probabilities of " + name + " add up to " + sum);
+        }
+        this.name = name;
+        this.probabilities = probabilities.clone();
+    }
+
+    private static TerrainMix standard() {
+        TerrainType[] types = TerrainType.values();
+        double[] probabilities = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            probabilities[i] = types[i].getProbability();
+        }
+        return new TerrainMix("default", probabilities);
+    }
+
+    public String getName() { return name; }
+    public double[] getProbabilities() { return probabilities.clone(); }
+
+    public static Set<String> getPresetNames() {
+        return Collections.unmodifiableSet(PRESETS.keySet());
+    }
+
+    /** The preset called {@code name}, or null if there is none. */
+    public static TerrainMix preset(String name) {
+        return PRESETS.get(name);
+    }
+
+    public TerrainType pick(RandomGenerator random) {
+        double roll = random.nextDouble();
+        double cumulative = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            cumulative += probabilities[i];
+            if (roll < cumulative) {
+                return TYPES[i];
+            }
+        }
+        return TerrainType.DEFAULT;
+    }
+
+    /** Stable text form of the probabilities, used in cache keys. */
+    public String key() {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < probabilities.length; i++) {
+            if (i > 0) key.append(',');
+            key.append(TYPES[i].name()).append('=').append(probabilities[i]);
+        }
+        return key.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TerrainMix && Arrays.equals(probabilities, ((TerrainMix) o).probabilities);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(probabilities);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,4 +1,6 @@
 import java.awt.Color;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public enum TerrainType {
     DEFAULT(1, new Color(248, 250, 252), "Default", 0.4),
@@ -23,16 +25,20 @@ public enum TerrainType {
     public String getName() { return name; }
     public double getProbability() { return probability; }
 
-    public static TerrainType getRandomTerrain() {
-        double rand = Math.random();
-        double cumulative = 0;
-
+    public static int getMaxWeight() {
+        int max = 0;
         for (TerrainType terrain : values()) {
-            cumulative += terrain.probability;
-            if (rand <= cumulative) {
-                return terrain;
-            }
+            max = Math.max(max, terrain.weight);
         }
-        return DEFAULT;
+        return max;
+    }
+
+    public static TerrainType getRandomTerrain() {
+        return getRandomTerrain(ThreadLocalRandom.current());
+    }
+
+    /** Same distribution as {@link #getRandomTerrain()}, drawn from {@code random}. */
+    public static TerrainType getRandomTerrain(RandomGenerator random) {
+        return TerrainMix.DEFAULT.pick(random);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Carves the maze in square tiles on a fork-join pool, then joins them.
+ * Each tile becomes a spanning tree of its own (randomized depth-first
+ * search confined to the tile), so the tiles form a grid of components;
+ * the join phase picks a random spanning tree of that grid with a
+ * union-find over tiles and opens one random wall on each chosen seam.
+ * That is the minimum of {@code tiles - 1} seam walls, and the result is a
+ * perfect maze.
+ *
+ * Tiles share words of the maze's bit planes along their borders, so the
+ * carving threads write through the atomic {@link Maze} setters. Every tile
+ * gets its own seed up front and carves with a private random stream, so a
+ * given seed makes the same maze no matter how many threads run or in what
+ * order.
+ *
+ * Tiles are carved by many threads at once, so no per-cell events are
+ * reported; the listener only hears about completion.
+ */
+public class TiledParallelGenerator extends MazeGenerator {
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    // Checked once per this many carving steps
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+    private int tileCols;
+    private long[] seeds;
+    private Thread owner;
+    private final ThreadLocal<TileScratch> scratch = new ThreadLocal<>();
+
+    public TiledParallelGenerator(Maze maze, RandomGenerator random) {
+        this(maze, random, ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    public TiledParallelGenerator(Maze maze, RandomGenerator random, ForkJoinPool pool, int tileSize) {
+        super(maze, random);
+        if (tileSize < 2) {
+            throw new IllegalArgumentException("tileSize must be at least 2: " + tileSize);
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        int tileRows = (rows + tileSize - 1) / tileSize;
+        tileCols = (cols + tileSize - 1) / tileSize;
+        int tiles = tileRows * tileCols;
+
+        seeds = new long[tiles];
+        for (int i = 0; i < tiles; i++) {
+            seeds[i] = random.nextLong();
+        }
+
+        // Pool threads are not interrupted along with the caller, so they watch it
+        owner = Thread.currentThread();
+        pool.invoke(new CarveTiles(0, tiles));
+        seeds = null;
+        if (isCancelled()) return false;
+
+        joinTiles(tileRows, tiles);
+        return true;
+    }
+
+    private class CarveTiles extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        CarveTiles(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                carveTile(from);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CarveTiles(from, mid), new CarveTiles(mid, to));
+            }
+        }
+    }
+
+    // Per-thread buffers, reused across the tiles a thread carves
+    private static final class TileScratch {
+        final int[] stack;
+        final boolean[] seen;
+
+        TileScratch(int cells) {
+            stack = new int[cells];
+            seen = new boolean[cells];
+        }
+    }
+
+    private void carveTile(int tile) {
+        int top = (tile / tileCols) * tileSize;
+        int left = (tile % tileCols) * tileSize;
+        int height = Math.min(tileSize, rows - top);
+        int width = Math.min(tileSize, cols - left);
+        int cells = height * width;
+
+        TileScratch buffers = scratch.get();
+        if (buffers == null) {
+            buffers = new TileScratch(tileSize * tileSize);
+            scratch.set(buffers);
+        }
+        int[] stack = buffers.stack;
+        boolean[] seen = buffers.seen;
+        Arrays.fill(seen, 0, cells, false);
+        int[] choices = new int[4];
+        SplittableRandom tileRandom = new SplittableRandom(seeds[tile]);
+
+        // Cells are addressed tile-locally as row * width + col
+        int start = tileRandom.nextInt(cells);
+        seen[start] = true;
+        maze.setVisitedAtomic(toId(top, left, width, start));
+        stack[0] = start;
+        int size = 1;
+        int steps = 0;
+
+        while (size > 0) {
+            if (++steps % CANCEL_CHECK_INTERVAL == 0 && owner.isInterrupted()) return;
+
+            int cell = stack[size - 1];
+            int row = cell / width;
+            int col = cell % width;
+            int count = 0;
+            if (row > 0 && !seen[cell - width]) choices[count++] = 0;
+            if (col < width - 1 && !seen[cell + 1]) choices[count++] = 1;
+            if (row < height - 1 && !seen[cell + width]) choices[count++] = 2;
+            if (col > 0 && !seen[cell - 1]) choices[count++] = 3;
+            if (count == 0) {
+                size--;
+                continue;
+            }
+
+            int id = toId(top, left, width, cell);
+            int next;
+            switch (choices[tileRandom.nextInt(count)]) {
+                case 0: next = cell - width; maze.openBottomWallAtomic(id - cols); break;
+                case 1: next = cell + 1; maze.openRightWallAtomic(id); break;
+                case 2: next = cell + width; maze.openBottomWallAtomic(id); break;
+                default: next = cell - 1; maze.openRightWallAtomic(id - 1); break;
+            }
+            seen[next] = true;
+            maze.setVisitedAtomic(toId(top, left, width, next));
+            stack[size++] = next;
+        }
+    }
+
+    private int toId(int top, int left, int width, int local) {
+        return (top + local / width) * cols + left + local % width;
+    }
+
+    // Opens one wall on each seam of a random spanning tree of the tile grid
+    private void joinTiles(int tileRows, int tiles) {
+        // Seams are encoded as tile * 2 + (0 for the right seam, 1 for the bottom one)
+        int[] seams = new int[tiles * 2];
+        int count = 0;
+        for (int tile = 0; tile < tiles; tile++) {
+            if (tile % tileCols < tileCols - 1) seams[count++] = tile << 1;
+            if (tile / tileCols < tileRows - 1) seams[count++] = tile << 1 | 1;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int seam = seams[i];
+            seams[i] = seams[j];
+            seams[j] = seam;
+        }
+
+        int[] parent = new int[tiles];
+        for (int tile = 0; tile < tiles; tile++) {
+            parent[tile] = tile;
+        }
+        for (int i = 0; i < count; i++) {
+            int tile = seams[i] >>> 1;
+            boolean bottom = (seams[i] & 1) != 0;
+            int a = find(parent, tile);
+            int b = find(parent, bottom ? tile + tileCols : tile + 1);
+            if (a == b) continue;
+            parent[b] = a;
+
+            int top = (tile / tileCols) * tileSize;
+            int left = (tile % tileCols) * tileSize;
+            if (bottom) {
+                int row = top + tileSize - 1;
+                int col = left + random.nextInt(Math.min(tileSize, cols - left));
+                maze.setBottomWall(row, col, false);
+            } else {
+                int row = top + random.nextInt(Math.min(tileSize, rows - top));
+                int col = left + tileSize - 1;
+                maze.setRightWall(row, col, false);
+            }
+        }
+    }
+
+    private static int find(int[] parent, int tile) {
+        while (parent[tile] != tile) {
+            parent[tile] = parent[parent[tile]];
+            tile = parent[tile];
+        }
+        return tile;
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Wilson's algorithm: adds loop-erased random walks to the tree until every
+ * cell is in it, which picks uniformly among all spanning trees of the
+ * grid. The first walks are long on big mazes; later ones are short.
+ *
+ * Loop erasure is free: each cell remembers only the last direction the
+ * walk left it by, so retracing from the start follows the loop-free path.
+ */
+public class WilsonGenerator extends MazeGenerator {
+    public WilsonGenerator(Maze maze, RandomGenerator random) {
+        super(maze, random);
+    }
+
+    @Override
+    protected boolean carveMaze() {
+        int cellCount = maze.getCellCount();
+        byte[] exit = new byte[cellCount];
+        int remaining = cellCount - 1;
+        visit(random.nextInt(cellCount), remaining);
+
+        for (int start = 0; start < cellCount; start++) {
+            if (maze.isVisited(start)) continue;
+
+            // Walk until the tree is hit
+            int cell = start;
+            while (!maze.isVisited(cell)) {
+                if (isCancelled()) return false;
+                int direction;
+                int next;
+                do {
+                    direction = random.nextInt(4);
+                    next = neighbor(cell, direction);
+                } while (next < 0);
+                exit[cell] = (byte) direction;
+                cell = next;
+            }
+
+            // Carve the loop-erased path into the tree
+            cell = start;
+            while (true) {
+                int next = neighbor(cell, exit[cell]);
+                boolean reachedTree = maze.isVisited(next);
+                carve(cell, exit[cell], --remaining);
+                if (reachedTree) break;
+                cell = next;
+            }
+        }
+        return true;
+    }
+}